@@ -0,0 +1,129 @@
+package com.voyageai.benchmarks;
+
+import com.voyageai.entity.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deterministic entity graphs sized like large real trips.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static User user() {
+        return User.builder()
+                .id(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+                .email("traveller@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3IPxGUuM1Cm0pQGQ4bT1a9e")
+                .fullName("Benchmark Traveller")
+                .emailVerified(true)
+                .createdAt(OffsetDateTime.parse("2024-01-01T00:00:00Z"))
+                .updatedAt(OffsetDateTime.parse("2024-01-01T00:00:00Z"))
+                .build();
+    }
+
+    public static Itinerary itinerary(User owner) {
+        return Itinerary.builder()
+                .id(UUID.nameUUIDFromBytes("itinerary".getBytes()))
+                .user(owner)
+                .name("Three weeks across Japan")
+                .destinations(new String[]{"Tokyo", "Kyoto", "Osaka", "Hiroshima", "Sapporo"})
+                .startDate(LocalDate.of(2024, 4, 1))
+                .endDate(LocalDate.of(2024, 4, 21))
+                .status("planning")
+                .travelType("adventure")
+                .baseCurrency("USD")
+                .createdAt(OffsetDateTime.parse("2024-01-01T00:00:00Z"))
+                .updatedAt(OffsetDateTime.parse("2024-01-02T00:00:00Z"))
+                .build();
+    }
+
+    public static List<ItineraryDay> days(Itinerary itinerary, int count) {
+        List<ItineraryDay> days = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            days.add(ItineraryDay.builder()
+                    .id(UUID.nameUUIDFromBytes(("day-" + i).getBytes()))
+                    .itinerary(itinerary)
+                    .dayNumber(i + 1)
+                    .date(itinerary.getStartDate().plusDays(i))
+                    .location(itinerary.getDestinations()[i % itinerary.getDestinations().length])
+                    .notes("Rail pass day " + (i + 1) + ", check out by 10:00")
+                    .build());
+        }
+        return days;
+    }
+
+    public static List<Activity> activities(ItineraryDay day, int count) {
+        List<Activity> activities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            activities.add(Activity.builder()
+                    .id(UUID.nameUUIDFromBytes((day.getId() + "-activity-" + i).getBytes()))
+                    .itineraryDay(day)
+                    .title("Activity " + i + " in " + day.getLocation())
+                    .description("Guided visit with time for photos, lunch nearby and a short walk back to the station.")
+                    .location(day.getLocation() + " district " + i)
+                    .category(i % 3 == 0 ? "food" : i % 3 == 1 ? "sightseeing" : "transport")
+                    .startTime(LocalTime.of(8 + i, 0))
+                    .endTime(LocalTime.of(8 + i, 45))
+                    .cost(new BigDecimal("42.50"))
+                    .bookingStatus(i % 2 == 0 ? "booked" : "pending")
+                    .build());
+        }
+        return activities;
+    }
+
+    public static List<TripParticipant> participants(Itinerary itinerary, int count) {
+        List<TripParticipant> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            participants.add(TripParticipant.builder()
+                    .id(UUID.nameUUIDFromBytes(("participant-" + i).getBytes()))
+                    .itinerary(itinerary)
+                    .name("Participant " + i)
+                    .email("participant" + i + "@example.com")
+                    .totalPaid(BigDecimal.ZERO)
+                    .totalOwed(BigDecimal.ZERO)
+                    .build());
+        }
+        return participants;
+    }
+
+    public static List<Expense> expenses(Itinerary itinerary, List<TripParticipant> participants, int count) {
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            expenses.add(Expense.builder()
+                    .id(UUID.nameUUIDFromBytes(("expense-" + i).getBytes()))
+                    .itinerary(itinerary)
+                    .paidByParticipant(participants.get(i % participants.size()))
+                    .amount(new BigDecimal("123.45"))
+                    .currency(i % 4 == 0 ? "JPY" : "USD")
+                    .category("food")
+                    .description("Dinner " + i)
+                    .date(itinerary.getStartDate().plusDays(i % 21))
+                    .splitType("equal")
+                    .createdAt(OffsetDateTime.parse("2024-04-01T12:00:00Z"))
+                    .build());
+        }
+        return expenses;
+    }
+
+    public static List<ExpenseSplit> splits(Expense expense, List<TripParticipant> participants) {
+        List<ExpenseSplit> splits = new ArrayList<>(participants.size());
+        for (TripParticipant participant : participants) {
+            splits.add(ExpenseSplit.builder()
+                    .id(UUID.nameUUIDFromBytes((expense.getId() + "-" + participant.getId()).getBytes()))
+                    .expense(expense)
+                    .participant(participant)
+                    .amount(new BigDecimal("20.58"))
+                    .build());
+        }
+        return splits;
+    }
+}
@@ -0,0 +1,51 @@
+package com.voyageai.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring Data repositories, so service code runs its real
+ * mapping logic against canned data without a database. Only the methods a
+ * benchmark registers are answered; anything else fails loudly.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    public static <T> Builder<T> repository(Class<T> type) {
+        return new Builder<>(type);
+    }
+
+    public static final class Builder<T> {
+
+        private final Class<T> type;
+        private final Map<String, Function<Object[], Object>> answers = new HashMap<>();
+
+        private Builder(Class<T> type) {
+            this.type = type;
+        }
+
+        public Builder<T> answer(String method, Function<Object[], Object> answer) {
+            answers.put(method, answer);
+            return this;
+        }
+
+        public T build() {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                Function<Object[], Object> answer = answers.get(method.getName());
+                if (answer != null) {
+                    return answer.apply(args);
+                }
+                return switch (method.getName()) {
+                    case "toString" -> type.getSimpleName() + " stub";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+                };
+            }));
+        }
+    }
+}
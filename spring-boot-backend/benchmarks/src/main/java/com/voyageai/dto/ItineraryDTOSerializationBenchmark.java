@@ -0,0 +1,95 @@
+package com.voyageai.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageai.dto.itinerary.ActivityDTO;
+import com.voyageai.dto.itinerary.ItineraryDTO;
+import com.voyageai.dto.itinerary.ItineraryDayDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a detailed ItineraryDTO, configured the way Spring
+ * MVC configures its message converter, for trips of increasing length.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItineraryDTOSerializationBenchmark {
+
+    @Param({"7", "21", "60"})
+    public int days;
+
+    @Param({"8"})
+    public int activitiesPerDay;
+
+    private ObjectMapper objectMapper;
+    private ItineraryDTO itinerary;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        UUID itineraryId = UUID.nameUUIDFromBytes("itinerary".getBytes());
+        List<ItineraryDayDTO> dayDTOs = new ArrayList<>();
+        for (int d = 0; d < days; d++) {
+            UUID dayId = UUID.nameUUIDFromBytes(("day-" + d).getBytes());
+            List<ActivityDTO> activities = new ArrayList<>();
+            for (int a = 0; a < activitiesPerDay; a++) {
+                activities.add(ActivityDTO.builder()
+                        .id(UUID.nameUUIDFromBytes((dayId + "-" + a).getBytes()))
+                        .itineraryDayId(dayId)
+                        .title("Activity " + a)
+                        .description("Guided visit with time for photos, lunch nearby and a short walk back to the station.")
+                        .location("District " + a)
+                        .startTime(LocalTime.of(8 + a, 0))
+                        .endTime(LocalTime.of(8 + a, 45))
+                        .category("sightseeing")
+                        .cost(new BigDecimal("42.50"))
+                        .bookingStatus("booked")
+                        .build());
+            }
+            dayDTOs.add(ItineraryDayDTO.builder()
+                    .id(dayId)
+                    .itineraryId(itineraryId)
+                    .dayNumber(d + 1)
+                    .date(LocalDate.of(2024, 4, 1).plusDays(d))
+                    .location("Kyoto")
+                    .notes("Rail pass day")
+                    .activities(activities)
+                    .build());
+        }
+
+        itinerary = ItineraryDTO.builder()
+                .id(itineraryId)
+                .userId(UUID.nameUUIDFromBytes("user".getBytes()))
+                .name("Long trip")
+                .destinations(List.of("Tokyo", "Kyoto", "Osaka"))
+                .startDate(LocalDate.of(2024, 4, 1))
+                .endDate(LocalDate.of(2024, 4, 1).plusDays(days - 1))
+                .status("planning")
+                .travelType("adventure")
+                .baseCurrency("USD")
+                .createdAt(OffsetDateTime.parse("2024-01-01T00:00:00Z"))
+                .updatedAt(OffsetDateTime.parse("2024-01-02T00:00:00Z"))
+                .days(dayDTOs)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(itinerary);
+    }
+}
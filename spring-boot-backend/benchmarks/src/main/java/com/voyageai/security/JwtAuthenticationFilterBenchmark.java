@@ -0,0 +1,84 @@
+package com.voyageai.security;
+
+import com.voyageai.benchmarks.Fixtures;
+import com.voyageai.benchmarks.Stubs;
+import com.voyageai.entity.User;
+import com.voyageai.repository.UserRepository;
+import com.voyageai.service.RefreshTokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Constructor;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through JwtAuthenticationFilter: header parsing,
+ * token verification, the revocation check and principal resolution. "warm"
+ * serves claims and the principal from their caches as in steady state; "cold"
+ * disables both caches so every request parses the token and loads the user.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"warm", "cold"})
+    public String caches;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        boolean warm = "warm".equals(caches);
+        User user = Fixtures.user();
+
+        JwtService jwtService = JwtServiceBenchmark.newJwtService(warm ? 60_000 : 0);
+        UserRepository userRepository = Stubs.repository(UserRepository.class)
+                .answer("findById", args -> Optional.of(user))
+                .answer("findByEmail", args -> Optional.of(user))
+                .build();
+
+        PrincipalCache principalCache = new PrincipalCache(userRepository, null);
+        ReflectionTestUtils.setField(principalCache, "ttlMs", warm ? 30_000L : 0L);
+        ReflectionTestUtils.setField(principalCache, "maxEntries", 20_000);
+        principalCache.init();
+
+        RefreshTokenService refreshTokenService = new RefreshTokenService(null, jwtService, principalCache, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(refreshTokenService, "revokedFamilies", emptyRevocationFilter());
+
+        filter = new JwtAuthenticationFilter(jwtService, userRepository, principalCache, refreshTokenService);
+        authorization = "Bearer " + jwtService.generateAccessToken(user, UUID.randomUUID());
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/itineraries");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static Object emptyRevocationFilter() throws ReflectiveOperationException {
+        Constructor<?> constructor = Class.forName("com.voyageai.service.BloomFilter")
+                .getDeclaredConstructor(long.class, double.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(100_000L, 0.001);
+    }
+}
@@ -0,0 +1,61 @@
+package com.voyageai.security;
+
+import com.voyageai.benchmarks.Fixtures;
+import com.voyageai.entity.User;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification cost: one full parse and HMAC check, and the cached path
+ * the JWT filter takes for a repeated bearer token.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private JwtService uncachedJwtService;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = newJwtService(60_000);
+        uncachedJwtService = newJwtService(0);
+        User user = Fixtures.user();
+        accessToken = jwtService.generateAccessToken(user, UUID.randomUUID());
+    }
+
+    @Benchmark
+    public Claims parseAndVerify() {
+        return uncachedJwtService.verifyAccessToken(accessToken);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return jwtService.verifyAccessToken(accessToken);
+    }
+
+    static JwtService newJwtService(long claimsCacheTtlMs) {
+        JwtService jwtService = new JwtService();
+        byte[] secret = new byte[32];
+        for (int i = 0; i < secret.length; i++) {
+            secret[i] = (byte) (i * 7 + 3);
+        }
+        ReflectionTestUtils.setField(jwtService, "secretKey", Base64.getEncoder().encodeToString(secret));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheTtlMs", claimsCacheTtlMs);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxEntries", 50_000);
+        jwtService.init();
+        return jwtService;
+    }
+}
@@ -0,0 +1,138 @@
+package com.voyageai.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.voyageai.dto.itinerary.GeneratedItineraryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a chat completion into GeneratedItineraryDTO. "current" is what
+ * AIService does (readTree of the whole response, then regex fence stripping);
+ * "streaming" walks the response with a token parser to the first choice's
+ * content and trims the fences by index, as a candidate replacement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AICompletionParsingBenchmark {
+
+    @Param({"7", "21"})
+    public int days;
+
+    private ObjectMapper objectMapper;
+    private AIService aiService;
+    private String responseBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        aiService = new AIService(null, objectMapper, new SimpleMeterRegistry());
+
+        List<GeneratedItineraryDTO.GeneratedDayDTO> generatedDays = new ArrayList<>();
+        for (int d = 1; d <= days; d++) {
+            List<GeneratedItineraryDTO.GeneratedActivityDTO> activities = new ArrayList<>();
+            for (int a = 0; a < 5; a++) {
+                activities.add(GeneratedItineraryDTO.GeneratedActivityDTO.builder()
+                        .title("Activity " + a + " on day " + d)
+                        .description("A walking tour through the old town with a stop at the covered market.")
+                        .startTime(String.format("%02d:00", 9 + a * 2))
+                        .endTime(String.format("%02d:30", 10 + a * 2))
+                        .location("Old Town")
+                        .category("sightseeing")
+                        .cost(25.0)
+                        .build());
+            }
+            generatedDays.add(GeneratedItineraryDTO.GeneratedDayDTO.builder()
+                    .dayNumber(d)
+                    .date("2024-04-" + String.format("%02d", Math.min(d, 28)))
+                    .location("Lisbon")
+                    .activities(activities)
+                    .notes("Keep the afternoon flexible.")
+                    .build());
+        }
+        GeneratedItineraryDTO itinerary = GeneratedItineraryDTO.builder()
+                .name("Portugal highlights")
+                .destinations(List.of("Lisbon", "Porto"))
+                .startDate("2024-04-01")
+                .endDate("2024-04-21")
+                .travelType("culture")
+                .days(generatedDays)
+                .build();
+
+        String content = "```json\n" + objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(itinerary) + "\n```";
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("id", "chatcmpl-benchmark");
+        response.put("object", "chat.completion");
+        response.put("model", "gpt-4o-mini");
+        ArrayNode choices = response.putArray("choices");
+        ObjectNode choice = choices.addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        response.putObject("usage").put("prompt_tokens", 812).put("completion_tokens", 3120);
+        responseBody = objectMapper.writeValueAsString(response);
+    }
+
+    @Benchmark
+    public GeneratedItineraryDTO current() throws IOException {
+        return aiService.parseCompletion(responseBody, GeneratedItineraryDTO.class);
+    }
+
+    @Benchmark
+    public GeneratedItineraryDTO streaming() throws IOException {
+        String content = firstChoiceContent(responseBody);
+        int start = content.indexOf('{');
+        int end = content.lastIndexOf('}');
+        return objectMapper.readValue(content.substring(start, end + 1), GeneratedItineraryDTO.class);
+    }
+
+    private String firstChoiceContent(String body) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("choices".equals(field) && value == JsonToken.START_ARRAY && parser.nextToken() == JsonToken.START_OBJECT) {
+                    return messageContent(parser);
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    private static String messageContent(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("message".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String messageField = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("content".equals(messageField)) {
+                        return parser.getText();
+                    }
+                    parser.skipChildren();
+                }
+                return null;
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.voyageai.service;
+
+import com.voyageai.benchmarks.Fixtures;
+import com.voyageai.benchmarks.Stubs;
+import com.voyageai.dto.expense.ExpenseDTO;
+import com.voyageai.entity.*;
+import com.voyageai.repository.ExpenseRepository;
+import com.voyageai.repository.ExpenseSplitRepository;
+import com.voyageai.repository.ItineraryRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expense listing (expense plus split DTO mapping) and the equal-split
+ * computation used when an expense is created without explicit splits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpenseServiceBenchmark {
+
+    @Param({"50", "500"})
+    public int expenses;
+
+    @Param({"6"})
+    public int participants;
+
+    private ExpenseService expenseService;
+    private User user;
+    private UUID itineraryId;
+    private final BigDecimal amount = new BigDecimal("1234.57");
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user();
+        Itinerary itinerary = Fixtures.itinerary(user);
+        itineraryId = itinerary.getId();
+
+        List<TripParticipant> tripParticipants = Fixtures.participants(itinerary, participants);
+        List<Expense> itineraryExpenses = Fixtures.expenses(itinerary, tripParticipants, expenses);
+        Map<UUID, List<ExpenseSplit>> splits = new HashMap<>();
+        for (Expense expense : itineraryExpenses) {
+            splits.put(expense.getId(), Fixtures.splits(expense, tripParticipants));
+        }
+
+        ExpenseRepository expenseRepository = Stubs.repository(ExpenseRepository.class)
+                .answer("findByItineraryIdOrderByDateDesc", args -> itineraryExpenses)
+                .build();
+        ExpenseSplitRepository splitRepository = Stubs.repository(ExpenseSplitRepository.class)
+                .answer("findByExpenseId", args -> splits.get((UUID) args[0]))
+                .build();
+        ItineraryRepository itineraryRepository = Stubs.repository(ItineraryRepository.class)
+                .answer("isOwner", args -> true)
+                .build();
+
+        expenseService = new ExpenseService(expenseRepository, splitRepository, itineraryRepository,
+                null, null, null, null);
+    }
+
+    @Benchmark
+    public List<ExpenseDTO> expenseList() {
+        return expenseService.getExpensesByItinerary(itineraryId, user);
+    }
+
+    @Benchmark
+    public BigDecimal equalSplit() {
+        return ExpenseService.equalShare(amount, participants);
+    }
+}
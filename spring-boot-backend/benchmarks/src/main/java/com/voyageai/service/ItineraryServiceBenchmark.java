@@ -0,0 +1,77 @@
+package com.voyageai.service;
+
+import com.voyageai.benchmarks.Fixtures;
+import com.voyageai.benchmarks.Stubs;
+import com.voyageai.dto.itinerary.ItineraryDTO;
+import com.voyageai.entity.*;
+import com.voyageai.repository.ActivityRepository;
+import com.voyageai.repository.ItineraryDayRepository;
+import com.voyageai.repository.ItineraryRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping in ItineraryService with repositories answered from
+ * memory, isolating the mapping and collection work from database time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItineraryServiceBenchmark {
+
+    @Param({"7", "21", "60"})
+    public int days;
+
+    @Param({"8"})
+    public int activitiesPerDay;
+
+    private ItineraryService itineraryService;
+    private User user;
+    private UUID itineraryId;
+
+    @Setup
+    public void setUp() {
+        user = Fixtures.user();
+        Itinerary itinerary = Fixtures.itinerary(user);
+        itineraryId = itinerary.getId();
+
+        List<ItineraryDay> itineraryDays = Fixtures.days(itinerary, days);
+        Map<UUID, List<Activity>> activities = new HashMap<>();
+        for (ItineraryDay day : itineraryDays) {
+            activities.put(day.getId(), Fixtures.activities(day, activitiesPerDay));
+        }
+        List<Itinerary> itineraries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            itineraries.add(itinerary);
+        }
+
+        ItineraryRepository itineraryRepository = Stubs.repository(ItineraryRepository.class)
+                .answer("findById", args -> Optional.of(itinerary))
+                .answer("findByUserIdOrParticipantUserId", args -> itineraries)
+                .build();
+        ItineraryDayRepository dayRepository = Stubs.repository(ItineraryDayRepository.class)
+                .answer("findByItineraryIdOrderByDayNumber", args -> itineraryDays)
+                .build();
+        ActivityRepository activityRepository = Stubs.repository(ActivityRepository.class)
+                .answer("findByItineraryDayIdOrderByStartTime", args -> activities.get((UUID) args[0]))
+                .build();
+
+        itineraryService = new ItineraryService(itineraryRepository, dayRepository, activityRepository,
+                null, null, null, null, null);
+    }
+
+    @Benchmark
+    public ItineraryDTO detailedItinerary() {
+        return itineraryService.getItinerary(itineraryId, user);
+    }
+
+    @Benchmark
+    public List<ItineraryDTO> itineraryList() {
+        return itineraryService.getUserItineraries(user);
+    }
+}
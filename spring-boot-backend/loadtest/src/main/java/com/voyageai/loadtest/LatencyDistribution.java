@@ -0,0 +1,98 @@
+package com.voyageai.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simulated service latency in milliseconds. Parsed from a spec such as
+ * {@code fixed:200}, {@code uniform:100-500} or {@code lognormal:800,0.6}
+ * (median in milliseconds and the sigma of the underlying normal, which
+ * controls how long the tail is).
+ */
+abstract class LatencyDistribution {
+
+    abstract long sampleMillis();
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":", 2);
+        String kind = parts[0].toLowerCase();
+        String args = parts.length > 1 ? parts[1] : "";
+        try {
+            switch (kind) {
+                case "none":
+                    return fixed(0);
+                case "fixed":
+                    return fixed(Long.parseLong(args));
+                case "uniform": {
+                    String[] bounds = args.split("-");
+                    return uniform(Long.parseLong(bounds[0]), Long.parseLong(bounds[1]));
+                }
+                case "lognormal": {
+                    String[] params = args.split(",");
+                    return logNormal(Double.parseDouble(params[0]), Double.parseDouble(params[1]));
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown latency distribution: " + kind);
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid latency spec '" + spec
+                    + "', expected fixed:MS, uniform:MIN-MAX or lognormal:MEDIAN,SIGMA", e);
+        }
+    }
+
+    static LatencyDistribution fixed(long millis) {
+        return new LatencyDistribution() {
+            @Override
+            long sampleMillis() {
+                return millis;
+            }
+
+            @Override
+            public String toString() {
+                return "fixed " + millis + "ms";
+            }
+        };
+    }
+
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        if (maxMillis < minMillis) {
+            throw new IllegalArgumentException("uniform latency max must not be below min");
+        }
+        return new LatencyDistribution() {
+            @Override
+            long sampleMillis() {
+                return ThreadLocalRandom.current().nextLong(minMillis, maxMillis + 1);
+            }
+
+            @Override
+            public String toString() {
+                return "uniform " + minMillis + "-" + maxMillis + "ms";
+            }
+        };
+    }
+
+    static LatencyDistribution logNormal(double medianMillis, double sigma) {
+        double mu = Math.log(medianMillis);
+        return new LatencyDistribution() {
+            @Override
+            long sampleMillis() {
+                return Math.round(Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+            }
+
+            @Override
+            public String toString() {
+                return "lognormal median " + (long) medianMillis + "ms sigma " + sigma;
+            }
+        };
+    }
+
+    static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.voyageai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and error counts. Latencies are recorded in
+ * microseconds into HdrHistograms, so percentiles stay exact to three
+ * significant digits however many requests a run makes.
+ */
+class LatencyStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private static final class Endpoint {
+        final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    void record(String endpoint, long elapsedNanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, e -> new Endpoint());
+        stats.histogram.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    void printReport(PrintStream out, double elapsedSeconds) {
+        String format = "%-52s %8s %7s %9s %9s %9s %9s %9s %9s%n";
+        out.printf(format, "Endpoint", "Count", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms");
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram histogram = entry.getValue().histogram.copy();
+            long errors = entry.getValue().errors.sum();
+            total.add(histogram);
+            totalErrors += errors;
+            printRow(out, format, entry.getKey(), histogram, errors, elapsedSeconds);
+        }
+        printRow(out, format, "TOTAL", total, totalErrors, elapsedSeconds);
+    }
+
+    private static void printRow(PrintStream out, String format, String name, Histogram histogram,
+                                 long errors, double elapsedSeconds) {
+        out.printf(format, name, histogram.getTotalCount(), errors,
+                String.format("%.1f", histogram.getTotalCount() / elapsedSeconds),
+                millis(histogram.getValueAtPercentile(PERCENTILES[0])),
+                millis(histogram.getValueAtPercentile(PERCENTILES[1])),
+                millis(histogram.getValueAtPercentile(PERCENTILES[2])),
+                millis(histogram.getValueAtPercentile(PERCENTILES[3])),
+                millis(histogram.getMaxValue()));
+    }
+
+    void writeJson(ObjectMapper objectMapper, Path file, double elapsedSeconds, Map<String, Object> run) throws IOException {
+        ObjectNode report = objectMapper.createObjectNode();
+        report.set("run", objectMapper.valueToTree(run));
+        report.put("elapsedSeconds", elapsedSeconds);
+        ArrayNode rows = report.putArray("endpoints");
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram histogram = entry.getValue().histogram.copy();
+            ObjectNode row = rows.addObject();
+            row.put("endpoint", entry.getKey());
+            row.put("count", histogram.getTotalCount());
+            row.put("errors", entry.getValue().errors.sum());
+            row.put("throughputPerSecond", histogram.getTotalCount() / elapsedSeconds);
+            ObjectNode latency = row.putObject("latencyMs");
+            latency.put("mean", histogram.getMean() / 1000.0);
+            for (double percentile : PERCENTILES) {
+                latency.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                        histogram.getValueAtPercentile(percentile) / 1000.0);
+            }
+            latency.put("max", histogram.getMaxValue() / 1000.0);
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
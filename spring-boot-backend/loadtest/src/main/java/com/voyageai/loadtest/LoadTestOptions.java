@@ -0,0 +1,154 @@
+package com.voyageai.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}. Options starting with
+ * {@code --app.} are passed through to the in-process backend as Spring
+ * properties, e.g. {@code --app.spring.datasource.hikari.maximum-pool-size=20}.
+ */
+record LoadTestOptions(
+        int users,
+        Duration duration,
+        Duration rampUp,
+        LatencyDistribution thinkTime,
+        int participants,
+        int expenses,
+        int documents,
+        int documentBytes,
+        int tripDays,
+        Duration requestTimeout,
+        String target,
+        String database,
+        String databaseUsername,
+        String databasePassword,
+        LatencyDistribution llmLatency,
+        double llmErrorRate,
+        int llmPort,
+        LatencyDistribution s3Latency,
+        int s3Port,
+        String s3Bucket,
+        boolean stubsOnly,
+        Path report,
+        Map<String, String> appProperties) {
+
+    static final String USAGE = """
+            Usage: java -jar loadtest.jar [--name=value ...]
+
+              --users=20                 concurrent virtual users
+              --duration=60s             how long users keep starting journeys
+              --ramp-up=10s              spread user start times over this period
+              --think-time=uniform:200-800
+                                         pause before each step (fixed:MS, uniform:MIN-MAX, lognormal:MEDIAN,SIGMA)
+              --participants=3           participants added per trip (at least 1)
+              --expenses=10              expenses logged per trip
+              --documents=1              documents uploaded per trip
+              --document-bytes=65536     size of each uploaded document
+              --trip-days=5              days per generated itinerary
+              --request-timeout=60s      per-request timeout
+              --target=URL               load an already running backend instead of starting one
+              --db=embedded              'embedded' for a throwaway Postgres, or a JDBC URL
+              --db-username=postgres     credentials for a JDBC URL database
+              --db-password=
+              --llm-latency=lognormal:1500,0.5
+                                         stub LLM response time distribution
+              --llm-error-rate=0         fraction of stub LLM calls answered with a 500
+              --llm-port=0               fixed stub LLM port (0 picks a free one)
+              --s3-latency=uniform:5-25  stub S3 response time distribution
+              --s3-port=0                fixed stub S3 port (0 picks a free one)
+              --s3-bucket=voyage-loadtest
+              --stubs-only               only start the stubs, for pointing a separately run backend at them
+              --report=loadtest-report.json
+              --app.<property>=value     extra Spring property for the in-process backend
+            """;
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        Map<String, String> appProperties = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+            String value = equals < 0 ? "true" : arg.substring(equals + 1);
+            if (name.startsWith("app.")) {
+                appProperties.put(name.substring(4), value);
+            } else {
+                values.put(name, value);
+            }
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(take(values, "users", "20")),
+                duration(take(values, "duration", "60s")),
+                duration(take(values, "ramp-up", "10s")),
+                LatencyDistribution.parse(take(values, "think-time", "uniform:200-800")),
+                Integer.parseInt(take(values, "participants", "3")),
+                Integer.parseInt(take(values, "expenses", "10")),
+                Integer.parseInt(take(values, "documents", "1")),
+                Integer.parseInt(take(values, "document-bytes", "65536")),
+                Integer.parseInt(take(values, "trip-days", "5")),
+                duration(take(values, "request-timeout", "60s")),
+                take(values, "target", null),
+                take(values, "db", "embedded"),
+                take(values, "db-username", "postgres"),
+                take(values, "db-password", ""),
+                LatencyDistribution.parse(take(values, "llm-latency", "lognormal:1500,0.5")),
+                Double.parseDouble(take(values, "llm-error-rate", "0")),
+                Integer.parseInt(take(values, "llm-port", "0")),
+                LatencyDistribution.parse(take(values, "s3-latency", "uniform:5-25")),
+                Integer.parseInt(take(values, "s3-port", "0")),
+                take(values, "s3-bucket", "voyage-loadtest"),
+                Boolean.parseBoolean(take(values, "stubs-only", "false")),
+                Path.of(take(values, "report", "loadtest-report.json")),
+                appProperties);
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown option(s): " + String.join(", ", values.keySet()));
+        }
+        if (options.users() < 1 || options.participants() < 1 || options.tripDays() < 1) {
+            throw new IllegalArgumentException("--users, --participants and --trip-days must be at least 1");
+        }
+        return options;
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("users", users);
+        run.put("durationSeconds", duration.toSeconds());
+        run.put("rampUpSeconds", rampUp.toSeconds());
+        run.put("thinkTime", thinkTime.toString());
+        run.put("participants", participants);
+        run.put("expenses", expenses);
+        run.put("documents", documents);
+        run.put("documentBytes", documentBytes);
+        run.put("tripDays", tripDays);
+        run.put("target", target != null ? target : "in-process");
+        run.put("llmLatency", llmLatency.toString());
+        run.put("llmErrorRate", llmErrorRate);
+        run.put("s3Latency", s3Latency.toString());
+        return run;
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,198 @@
+package com.voyageai.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageai.VoyageApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entry point of loadtest.jar. Starts the stub LLM and S3 servers, a database
+ * and the backend in-process (unless {@code --target} points at a running one),
+ * then runs closed-loop virtual users through {@link UserJourney} for the
+ * configured duration and reports throughput and latency percentiles per
+ * endpoint. The generator shares the machine with the backend, so compare runs
+ * made on the same hardware rather than reading the numbers as capacity.
+ */
+public final class LoadTestRunner {
+
+    private static final int MAX_LOGGED_FAILURES = 10;
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (List.of(args).contains("--help")) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (StubLlmServer llm = new StubLlmServer(objectMapper, options.llmLatency(), options.llmErrorRate(), options.llmPort());
+             StubS3Server s3 = new StubS3Server(options.s3Latency(), options.s3Port())) {
+            llm.start();
+            s3.start();
+            System.out.printf("Stub LLM at %s (%s), stub S3 at %s (%s)%n",
+                    llm.baseUrl(), options.llmLatency(), s3.endpoint(), options.s3Latency());
+
+            if (options.stubsOnly()) {
+                System.out.printf("Point the backend at the stubs with:%n"
+                                + "  AI_BASE_URL=%s AI_API_KEY=loadtest%n"
+                                + "  AWS_S3_ENDPOINT=%s AWS_S3_PATH_STYLE=true AWS_S3_BUCKET=%s"
+                                + " AWS_ACCESS_KEY_ID=loadtest AWS_SECRET_ACCESS_KEY=loadtest%n"
+                                + "  AUTH_RATE_LIMIT_ENABLED=false%n"
+                                + "Press Ctrl+C to stop.%n",
+                        llm.baseUrl(), s3.endpoint(), options.s3Bucket());
+                CountDownLatch stopped = new CountDownLatch(1);
+                Runtime.getRuntime().addShutdownHook(new Thread(stopped::countDown));
+                stopped.await();
+                return;
+            }
+
+            if (options.target() != null) {
+                run(options, objectMapper, options.target(), llm, s3);
+                return;
+            }
+
+            try (Database database = Database.start(options);
+                 ConfigurableApplicationContext app = startBackend(options, database, llm, s3)) {
+                int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+                run(options, objectMapper, "http://127.0.0.1:" + port, llm, s3);
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startBackend(LoadTestOptions options, Database database,
+                                                               StubLlmServer llm, StubS3Server s3) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", database.jdbcUrl());
+        properties.put("spring.datasource.username", database.username());
+        properties.put("spring.datasource.password", database.password());
+        // The default secret in application.yml is not valid base64
+        properties.put("jwt.secret", Base64.getEncoder().encodeToString(randomBytes(64)));
+        properties.put("ai.base-url", llm.baseUrl());
+        properties.put("ai.api-key", "loadtest");
+        properties.put("aws.s3.endpoint", s3.endpoint());
+        properties.put("aws.s3.path-style-access", "true");
+        properties.put("aws.s3.bucket", options.s3Bucket());
+        properties.put("aws.access-key", "loadtest");
+        properties.put("aws.secret-key", "loadtest");
+        // Every virtual user comes from the same address
+        properties.put("security.auth-rate-limit.enabled", "false");
+        properties.put("logging.level.com.voyageai", "INFO");
+        properties.putAll(options.appProperties());
+
+        // Command line arguments, so they take precedence over application.yml
+        List<String> arguments = new ArrayList<>();
+        properties.forEach((name, value) -> arguments.add("--" + name + "=" + value));
+        return new SpringApplicationBuilder(VoyageApplication.class).run(arguments.toArray(new String[0]));
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new SecureRandom().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static void run(LoadTestOptions options, ObjectMapper objectMapper, String baseUrl,
+                            StubLlmServer llm, StubS3Server s3) throws InterruptedException, IOException {
+        LatencyStats stats = new LatencyStats();
+        AtomicLong completedJourneys = new AtomicLong();
+        AtomicLong failedJourneys = new AtomicLong();
+        AtomicInteger loggedFailures = new AtomicInteger();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.requestTimeout())
+                .build();
+
+        System.out.printf("Running %d users for %ds (ramp-up %ds) against %s%n",
+                options.users(), options.duration().toSeconds(), options.rampUp().toSeconds(), baseUrl);
+        long start = System.nanoTime();
+        long deadline = start + options.duration().toNanos();
+        ExecutorService users = Executors.newFixedThreadPool(options.users(), StubLlmServer.daemonThreads("virtual-user"));
+        for (int i = 0; i < options.users(); i++) {
+            long startDelay = options.rampUp().toMillis() * i / options.users();
+            users.execute(() -> {
+                LatencyDistribution.sleep(startDelay);
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    VoyageClient client = new VoyageClient(httpClient, objectMapper, stats, baseUrl, options.requestTimeout());
+                    try {
+                        new UserJourney(client, options).run();
+                        completedJourneys.incrementAndGet();
+                    } catch (VoyageClient.CallFailedException e) {
+                        failedJourneys.incrementAndGet();
+                        if (loggedFailures.incrementAndGet() <= MAX_LOGGED_FAILURES) {
+                            System.err.println("Journey failed: " + e.getMessage());
+                        }
+                    }
+                }
+            });
+        }
+        users.shutdown();
+        // Journeys in flight at the deadline are allowed to finish
+        if (!users.awaitTermination(options.duration().toMillis() + options.rampUp().toMillis()
+                + 20 * options.requestTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            users.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println();
+        stats.printReport(System.out, elapsedSeconds);
+        System.out.printf("%nJourneys: %d completed, %d failed in %.1fs; stub LLM calls: %d; stub S3 calls: %d (%d objects, %d bytes)%n",
+                completedJourneys.get(), failedJourneys.get(), elapsedSeconds,
+                llm.requestCount(), s3.requestCount(), s3.objectCount(), s3.storedBytes());
+
+        Map<String, Object> run = options.describe();
+        run.put("completedJourneys", completedJourneys.get());
+        run.put("failedJourneys", failedJourneys.get());
+        stats.writeJson(objectMapper, options.report(), elapsedSeconds, run);
+        System.out.println("Report written to " + options.report().toAbsolutePath());
+    }
+
+    /** The backend's database: a throwaway embedded Postgres or an external one given by JDBC URL. */
+    private record Database(String jdbcUrl, String username, String password, EmbeddedPostgres embedded)
+            implements AutoCloseable {
+
+        static Database start(LoadTestOptions options) throws IOException {
+            if (!"embedded".equals(options.database())) {
+                return new Database(options.database(), options.databaseUsername(), options.databasePassword(), null);
+            }
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            System.out.println("Started embedded Postgres on port " + postgres.getPort());
+            return new Database(postgres.getJdbcUrl("postgres", "postgres"), "postgres", "postgres", postgres);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.voyageai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OpenAI-compatible {@code POST /chat/completions} stand-in. Answers itinerary
+ * and regenerate-day prompts with well-formed JSON after a latency drawn from
+ * the configured distribution, optionally failing a fraction of calls. Requests
+ * with {@code "stream": true} get a server-sent event stream of
+ * {@code chat.completion.chunk} deltas, with a fifth of the latency spent before
+ * the first token and the rest spread across the chunks.
+ */
+class StubLlmServer implements AutoCloseable {
+
+    private static final Pattern DESTINATIONS = Pattern.compile("Destinations: (.+)");
+    private static final Pattern START_DATE = Pattern.compile("Start Date: (\\d{4}-\\d{2}-\\d{2})");
+    private static final Pattern END_DATE = Pattern.compile("End Date: (\\d{4}-\\d{2}-\\d{2})");
+    private static final Pattern REGENERATE = Pattern.compile("Regenerate activities for Day (\\d+) at ([^.\\n]+)");
+    private static final int MAX_DAYS = 30;
+    private static final int STREAM_CHUNKS = 24;
+    private static final String[] CATEGORIES = {"sightseeing", "food", "culture", "outdoors", "shopping"};
+
+    private final ObjectMapper objectMapper;
+    private final LatencyDistribution latency;
+    private final double errorRate;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong requests = new AtomicLong();
+
+    StubLlmServer(ObjectMapper objectMapper, LatencyDistribution latency, double errorRate, int port) throws IOException {
+        this.objectMapper = objectMapper;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        // Requests spend most of their life sleeping, so one thread each
+        this.executor = Executors.newCachedThreadPool(daemonThreads("stub-llm"));
+        server.setExecutor(executor);
+        server.createContext("/chat/completions", this::handle);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long requestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            requests.incrementAndGet();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            long delay = latency.sampleMillis();
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                LatencyDistribution.sleep(delay);
+                sendJson(exchange, 500, "{\"error\":{\"message\":\"Injected failure\",\"type\":\"server_error\"}}");
+                return;
+            }
+
+            String content = "```json\n" + objectMapper.writeValueAsString(answer(lastUserMessage(request))) + "\n```";
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, request, content, delay);
+            } else {
+                LatencyDistribution.sleep(delay);
+                sendJson(exchange, 200, objectMapper.writeValueAsString(completion(request, content)));
+            }
+        }
+    }
+
+    private String lastUserMessage(JsonNode request) {
+        String prompt = "";
+        for (JsonNode message : request.path("messages")) {
+            if ("user".equals(message.path("role").asText())) {
+                prompt = message.path("content").asText();
+            }
+        }
+        return prompt;
+    }
+
+    private ObjectNode answer(String prompt) {
+        Matcher regenerate = REGENERATE.matcher(prompt);
+        if (regenerate.find()) {
+            int dayNumber = Integer.parseInt(regenerate.group(1));
+            return day(dayNumber, null, regenerate.group(2).trim());
+        }
+
+        List<String> destinations = new ArrayList<>();
+        Matcher matcher = DESTINATIONS.matcher(prompt);
+        if (matcher.find()) {
+            for (String destination : matcher.group(1).split(",")) {
+                destinations.add(destination.trim());
+            }
+        }
+        if (destinations.isEmpty()) {
+            destinations.add("Lisbon");
+        }
+        LocalDate start = date(START_DATE, prompt, LocalDate.now().plusDays(30));
+        LocalDate end = date(END_DATE, prompt, start.plusDays(4));
+
+        ObjectNode itinerary = objectMapper.createObjectNode();
+        itinerary.put("name", "Trip to " + String.join(" and ", destinations));
+        ArrayNode destinationsNode = itinerary.putArray("destinations");
+        destinations.forEach(destinationsNode::add);
+        itinerary.put("startDate", start.toString());
+        itinerary.put("endDate", end.toString());
+        itinerary.put("travelType", "leisure");
+        itinerary.putNull("imageUrl");
+        ArrayNode days = itinerary.putArray("days");
+        int dayNumber = 1;
+        for (LocalDate date = start; !date.isAfter(end) && dayNumber <= MAX_DAYS; date = date.plusDays(1), dayNumber++) {
+            days.add(day(dayNumber, date, destinations.get((dayNumber - 1) % destinations.size())));
+        }
+        return itinerary;
+    }
+
+    private ObjectNode day(int dayNumber, LocalDate date, String location) {
+        ObjectNode day = objectMapper.createObjectNode();
+        day.put("dayNumber", dayNumber);
+        if (date != null) {
+            day.put("date", date.toString());
+        }
+        day.put("location", location);
+        day.put("notes", "Comfortable shoes recommended; most sights in " + location + " are walkable.");
+        ArrayNode activities = day.putArray("activities");
+        for (int slot = 0; slot < 4; slot++) {
+            ObjectNode activity = activities.addObject();
+            String category = CATEGORIES[(dayNumber + slot) % CATEGORIES.length];
+            activity.put("title", location + " " + category + " stop " + (slot + 1));
+            activity.put("description", "A " + category + " highlight of " + location + " chosen for day " + dayNumber + ".");
+            activity.put("location", location + " centre");
+            activity.put("category", category);
+            activity.put("startTime", String.format("%02d:00", 9 + slot * 3));
+            activity.put("endTime", String.format("%02d:30", 10 + slot * 3));
+            activity.put("cost", 10 + 5 * slot);
+        }
+        return day;
+    }
+
+    private static LocalDate date(Pattern pattern, String prompt, LocalDate fallback) {
+        Matcher matcher = pattern.matcher(prompt);
+        if (!matcher.find()) {
+            return fallback;
+        }
+        try {
+            return LocalDate.parse(matcher.group(1));
+        } catch (DateTimeParseException e) {
+            return fallback;
+        }
+    }
+
+    private ObjectNode completion(JsonNode request, String content) {
+        ObjectNode response = envelope(request, "chatcmpl-" + UUID.randomUUID(), "chat.completion");
+        ObjectNode choice = response.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode message = choice.putObject("message");
+        message.put("role", "assistant");
+        message.put("content", content);
+        choice.put("finish_reason", "stop");
+        ObjectNode usage = response.putObject("usage");
+        int completionTokens = content.length() / 4;
+        usage.put("prompt_tokens", 350);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", 350 + completionTokens);
+        return response;
+    }
+
+    private void stream(HttpExchange exchange, JsonNode request, String content, long delay) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        LatencyDistribution.sleep(delay / 5);
+        exchange.sendResponseHeaders(200, 0);
+
+        // Every chunk of one completion carries the same id
+        String id = "chatcmpl-" + UUID.randomUUID();
+        OutputStream out = exchange.getResponseBody();
+        ObjectNode first = envelope(request, id, "chat.completion.chunk");
+        ObjectNode firstChoice = first.putArray("choices").addObject();
+        firstChoice.put("index", 0);
+        firstChoice.putObject("delta").put("role", "assistant");
+        firstChoice.putNull("finish_reason");
+        writeEvent(out, objectMapper.writeValueAsString(first));
+
+        int chunkSize = Math.max(1, (content.length() + STREAM_CHUNKS - 1) / STREAM_CHUNKS);
+        long interChunkDelay = (delay - delay / 5) / STREAM_CHUNKS;
+        for (int offset = 0; offset < content.length(); offset += chunkSize) {
+            LatencyDistribution.sleep(interChunkDelay);
+            ObjectNode chunk = envelope(request, id, "chat.completion.chunk");
+            ObjectNode choice = chunk.putArray("choices").addObject();
+            choice.put("index", 0);
+            choice.putObject("delta").put("content", content.substring(offset, Math.min(content.length(), offset + chunkSize)));
+            choice.putNull("finish_reason");
+            writeEvent(out, objectMapper.writeValueAsString(chunk));
+        }
+
+        ObjectNode last = envelope(request, id, "chat.completion.chunk");
+        ObjectNode lastChoice = last.putArray("choices").addObject();
+        lastChoice.put("index", 0);
+        lastChoice.putObject("delta");
+        lastChoice.put("finish_reason", "stop");
+        writeEvent(out, objectMapper.writeValueAsString(last));
+        writeEvent(out, "[DONE]");
+    }
+
+    private ObjectNode envelope(JsonNode request, String id, String object) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("id", id);
+        response.put("object", object);
+        response.put("created", System.currentTimeMillis() / 1000);
+        response.put("model", request.path("model").asText("stub"));
+        return response;
+    }
+
+    private static void writeEvent(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,444 @@
+package com.voyageai.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory, path-style S3 stand-in covering the calls the backend makes:
+ * object PUT/GET (with ranges)/HEAD/DELETE, multipart uploads, DeleteObjects
+ * and ListObjectsV2. Signatures are not checked, but {@code aws-chunked}
+ * bodies are decoded since the SDK streams signed chunks over plain HTTP.
+ * Every request waits for a latency drawn from the configured distribution.
+ */
+class StubS3Server implements AutoCloseable {
+
+    private static final String XMLNS = "http://s3.amazonaws.com/doc/2006-03-01/";
+    private static final Pattern DELETE_KEY = Pattern.compile("<Key>(.*?)</Key>", Pattern.DOTALL);
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+    private static final int DEFAULT_MAX_KEYS = 1000;
+
+    private record StoredObject(byte[] data, String contentType, String etag, String checksumSha256, Instant lastModified) {
+    }
+
+    private record MultipartUpload(String bucket, String key, String contentType, Map<Integer, byte[]> parts) {
+    }
+
+    private final Map<String, NavigableMap<String, StoredObject>> buckets = new ConcurrentHashMap<>();
+    private final Map<String, MultipartUpload> uploads = new ConcurrentHashMap<>();
+    private final LatencyDistribution latency;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    StubS3Server(LatencyDistribution latency, int port) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.executor = Executors.newCachedThreadPool(StubLlmServer.daemonThreads("stub-s3"));
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    long requestCount() {
+        return requests.get();
+    }
+
+    long objectCount() {
+        return buckets.values().stream().mapToLong(Map::size).sum();
+    }
+
+    long storedBytes() {
+        return storedBytes.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            LatencyDistribution.sleep(latency.sampleMillis());
+
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            int slash = path.indexOf('/', 1);
+            String bucket = slash < 0 ? path.substring(1) : path.substring(1, slash);
+            String key = slash < 0 ? "" : path.substring(slash + 1);
+            if (bucket.isEmpty()) {
+                sendError(exchange, 400, "InvalidBucketName", "Path-style addressing is required");
+                return;
+            }
+
+            String method = exchange.getRequestMethod();
+            if (key.isEmpty()) {
+                handleBucket(exchange, method, bucket, query);
+            } else {
+                handleObject(exchange, method, bucket, key, query);
+            }
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "InternalError", e.getMessage());
+        }
+    }
+
+    private void handleBucket(HttpExchange exchange, String method, String bucket, Map<String, String> query) throws IOException {
+        switch (method) {
+            case "PUT", "HEAD" -> {
+                bucket(bucket);
+                exchange.sendResponseHeaders(200, -1);
+            }
+            case "GET" -> listObjects(exchange, bucket, query);
+            case "POST" -> {
+                if (!query.containsKey("delete")) {
+                    sendError(exchange, 501, "NotImplemented", "Unsupported bucket operation");
+                    return;
+                }
+                deleteObjects(exchange, bucket);
+            }
+            default -> sendError(exchange, 405, "MethodNotAllowed", method);
+        }
+    }
+
+    private void handleObject(HttpExchange exchange, String method, String bucket, String key,
+                              Map<String, String> query) throws IOException {
+        String uploadId = query.get("uploadId");
+        switch (method) {
+            case "PUT" -> {
+                if (uploadId != null) {
+                    uploadPart(exchange, uploadId, Integer.parseInt(query.get("partNumber")));
+                } else {
+                    putObject(exchange, bucket, key);
+                }
+            }
+            case "POST" -> {
+                if (query.containsKey("uploads")) {
+                    createMultipartUpload(exchange, bucket, key);
+                } else if (uploadId != null) {
+                    completeMultipartUpload(exchange, uploadId);
+                } else {
+                    sendError(exchange, 501, "NotImplemented", "Unsupported object operation");
+                }
+            }
+            case "GET", "HEAD" -> getObject(exchange, bucket, key, "HEAD".equals(method));
+            case "DELETE" -> {
+                if (uploadId != null) {
+                    uploads.remove(uploadId);
+                } else {
+                    StoredObject removed = bucket(bucket).remove(key);
+                    if (removed != null) {
+                        storedBytes.addAndGet(-removed.data().length);
+                    }
+                }
+                exchange.sendResponseHeaders(204, -1);
+            }
+            default -> sendError(exchange, 405, "MethodNotAllowed", method);
+        }
+    }
+
+    private void putObject(HttpExchange exchange, String bucket, String key) throws IOException {
+        byte[] data = readBody(exchange);
+        StoredObject object = new StoredObject(data,
+                exchange.getRequestHeaders().getFirst("Content-Type"),
+                "\"" + md5Hex(data) + "\"",
+                exchange.getRequestHeaders().getFirst("x-amz-checksum-sha256"),
+                Instant.now());
+        store(bucket, key, object);
+        exchange.getResponseHeaders().set("ETag", object.etag());
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void getObject(HttpExchange exchange, String bucket, String key, boolean headOnly) throws IOException {
+        StoredObject object = bucket(bucket).get(key);
+        if (object == null) {
+            if (headOnly) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                sendError(exchange, 404, "NoSuchKey", "The specified key does not exist.");
+            }
+            return;
+        }
+
+        var headers = exchange.getResponseHeaders();
+        headers.set("ETag", object.etag());
+        headers.set("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(object.lastModified().atZone(ZoneOffset.UTC)));
+        headers.set("Accept-Ranges", "bytes");
+        if (object.contentType() != null) {
+            headers.set("Content-Type", object.contentType());
+        }
+        if (object.checksumSha256() != null) {
+            headers.set("x-amz-checksum-sha256", object.checksumSha256());
+        }
+
+        byte[] data = object.data();
+        int from = 0;
+        int to = data.length - 1;
+        int status = 200;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range != null && !headOnly) {
+            Matcher matcher = RANGE.matcher(range);
+            if (matcher.matches()) {
+                from = Integer.parseInt(matcher.group(1));
+                if (!matcher.group(2).isEmpty()) {
+                    to = Math.min(to, Integer.parseInt(matcher.group(2)));
+                }
+                if (from > to) {
+                    headers.set("Content-Range", "bytes */" + data.length);
+                    sendError(exchange, 416, "InvalidRange", "The requested range is not satisfiable");
+                    return;
+                }
+                status = 206;
+                headers.set("Content-Range", "bytes " + from + "-" + to + "/" + data.length);
+            }
+        }
+
+        if (headOnly) {
+            headers.set("Content-Length", String.valueOf(data.length));
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        int length = to - from + 1;
+        exchange.sendResponseHeaders(status, length == 0 ? -1 : length);
+        if (length > 0) {
+            exchange.getResponseBody().write(data, from, length);
+        }
+    }
+
+    private void createMultipartUpload(HttpExchange exchange, String bucket, String key) throws IOException {
+        String uploadId = UUID.randomUUID().toString();
+        uploads.put(uploadId, new MultipartUpload(bucket, key,
+                exchange.getRequestHeaders().getFirst("Content-Type"), new ConcurrentHashMap<>()));
+        sendXml(exchange, 200, "<InitiateMultipartUploadResult xmlns=\"" + XMLNS + "\">"
+                + "<Bucket>" + escape(bucket) + "</Bucket><Key>" + escape(key) + "</Key>"
+                + "<UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+    }
+
+    private void uploadPart(HttpExchange exchange, String uploadId, int partNumber) throws IOException {
+        MultipartUpload upload = uploads.get(uploadId);
+        if (upload == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+            return;
+        }
+        byte[] data = readBody(exchange);
+        upload.parts().put(partNumber, data);
+        exchange.getResponseHeaders().set("ETag", "\"" + md5Hex(data) + "\"");
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void completeMultipartUpload(HttpExchange exchange, String uploadId) throws IOException {
+        readBody(exchange);
+        MultipartUpload upload = uploads.remove(uploadId);
+        if (upload == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+            return;
+        }
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        ByteArrayOutputStream partDigests = new ByteArrayOutputStream();
+        for (byte[] part : new TreeMap<>(upload.parts()).values()) {
+            data.writeBytes(part);
+            partDigests.writeBytes(md5(part));
+        }
+        String etag = "\"" + HexFormat.of().formatHex(md5(partDigests.toByteArray())) + "-" + upload.parts().size() + "\"";
+        store(upload.bucket(), upload.key(),
+                new StoredObject(data.toByteArray(), upload.contentType(), etag, null, Instant.now()));
+        sendXml(exchange, 200, "<CompleteMultipartUploadResult xmlns=\"" + XMLNS + "\">"
+                + "<Bucket>" + escape(upload.bucket()) + "</Bucket><Key>" + escape(upload.key()) + "</Key>"
+                + "<ETag>" + escape(etag) + "</ETag></CompleteMultipartUploadResult>");
+    }
+
+    private void deleteObjects(HttpExchange exchange, String bucket) throws IOException {
+        String body = new String(readBody(exchange), StandardCharsets.UTF_8);
+        NavigableMap<String, StoredObject> objects = bucket(bucket);
+        StringBuilder xml = new StringBuilder("<DeleteResult xmlns=\"" + XMLNS + "\">");
+        Matcher matcher = DELETE_KEY.matcher(body);
+        while (matcher.find()) {
+            String key = unescape(matcher.group(1));
+            StoredObject removed = objects.remove(key);
+            if (removed != null) {
+                storedBytes.addAndGet(-removed.data().length);
+            }
+            xml.append("<Deleted><Key>").append(escape(key)).append("</Key></Deleted>");
+        }
+        sendXml(exchange, 200, xml.append("</DeleteResult>").toString());
+    }
+
+    private void listObjects(HttpExchange exchange, String bucket, Map<String, String> query) throws IOException {
+        String prefix = query.getOrDefault("prefix", "");
+        int maxKeys = query.containsKey("max-keys") ? Integer.parseInt(query.get("max-keys")) : DEFAULT_MAX_KEYS;
+        // Continuation tokens are simply the last key returned
+        String after = query.getOrDefault("continuation-token", query.getOrDefault("start-after", ""));
+
+        NavigableMap<String, StoredObject> candidates = bucket(bucket).tailMap(after, false);
+        StringBuilder contents = new StringBuilder();
+        int count = 0;
+        String lastKey = null;
+        boolean truncated = false;
+        for (Map.Entry<String, StoredObject> entry : candidates.entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                if (entry.getKey().compareTo(prefix) > 0) {
+                    break;
+                }
+                continue;
+            }
+            if (count == maxKeys) {
+                truncated = true;
+                break;
+            }
+            StoredObject object = entry.getValue();
+            contents.append("<Contents><Key>").append(escape(entry.getKey())).append("</Key>")
+                    .append("<LastModified>").append(object.lastModified()).append("</LastModified>")
+                    .append("<ETag>").append(escape(object.etag())).append("</ETag>")
+                    .append("<Size>").append(object.data().length).append("</Size>")
+                    .append("<StorageClass>STANDARD</StorageClass></Contents>");
+            lastKey = entry.getKey();
+            count++;
+        }
+
+        StringBuilder xml = new StringBuilder("<ListBucketResult xmlns=\"" + XMLNS + "\">")
+                .append("<Name>").append(escape(bucket)).append("</Name>")
+                .append("<Prefix>").append(escape(prefix)).append("</Prefix>")
+                .append("<KeyCount>").append(count).append("</KeyCount>")
+                .append("<MaxKeys>").append(maxKeys).append("</MaxKeys>")
+                .append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+        if (truncated) {
+            xml.append("<NextContinuationToken>").append(escape(lastKey)).append("</NextContinuationToken>");
+        }
+        sendXml(exchange, 200, xml.append(contents).append("</ListBucketResult>").toString());
+    }
+
+    private NavigableMap<String, StoredObject> bucket(String name) {
+        return buckets.computeIfAbsent(name, b -> new ConcurrentSkipListMap<>());
+    }
+
+    private void store(String bucket, String key, StoredObject object) {
+        StoredObject previous = bucket(bucket).put(key, object);
+        storedBytes.addAndGet(object.data().length - (previous != null ? previous.data().length : 0));
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] raw = exchange.getRequestBody().readAllBytes();
+        String contentSha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        boolean chunked = (contentSha != null && contentSha.startsWith("STREAMING-"))
+                || (encoding != null && encoding.contains("aws-chunked"));
+        return chunked ? decodeAwsChunked(raw) : raw;
+    }
+
+    /**
+     * Strips the aws-chunked framing: {@code hex-size[;chunk-signature=...]\r\n
+     * data\r\n} repeated until a zero-size chunk, optionally followed by trailers.
+     */
+    static byte[] decodeAwsChunked(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length);
+        int position = 0;
+        while (position < raw.length) {
+            int lineEnd = indexOfCrlf(raw, position);
+            if (lineEnd < 0) {
+                throw new IOException("Malformed aws-chunked body");
+            }
+            String header = new String(raw, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int semicolon = header.indexOf(';');
+            int size = Integer.parseInt((semicolon < 0 ? header : header.substring(0, semicolon)).trim(), 16);
+            position = lineEnd + 2;
+            if (size == 0) {
+                break;
+            }
+            if (position + size > raw.length) {
+                throw new IOException("Truncated aws-chunked body");
+            }
+            out.write(raw, position, size);
+            position += size + 2;
+        }
+        return out.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] data, int from) {
+        for (int i = from; i < data.length - 1; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    private static void sendXml(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String code, String message) throws IOException {
+        sendXml(exchange, status, "<Error><Code>" + code + "</Code><Message>" + escape(String.valueOf(message))
+                + "</Message><RequestId>" + UUID.randomUUID() + "</RequestId></Error>");
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&quot;", "\"").replace("&gt;", ">").replace("&lt;", "<").replace("&amp;", "&");
+    }
+
+    private static String md5Hex(byte[] data) {
+        return HexFormat.of().formatHex(md5(data));
+    }
+
+    private static byte[] md5(byte[] data) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.voyageai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One scripted trip from sign-up to settling up: register, generate an itinerary
+ * with the AI, save it, invite participants, log expenses, upload a booking
+ * document and read the expense summary and itinerary back. Each step waits for
+ * a think time first; a failed step ends the journey since later ones need its
+ * result.
+ */
+class UserJourney {
+
+    static final String REGISTER = "POST /api/auth/register";
+    static final String GENERATE = "POST /api/itineraries/generate";
+    static final String SAVE_GENERATED = "POST /api/itineraries/save-generated";
+    static final String ADD_PARTICIPANT = "POST /api/participants/itinerary/{id}";
+    static final String CREATE_EXPENSE = "POST /api/expenses/itinerary/{id}";
+    static final String UPLOAD_DOCUMENT = "POST /api/documents/itinerary/{id}";
+    static final String EXPENSE_SUMMARY = "GET /api/expenses/itinerary/{id}/summary";
+    static final String GET_ITINERARY = "GET /api/itineraries/{id}";
+
+    private static final String[][] DESTINATIONS = {
+            {"Lisbon", "Porto"}, {"Kyoto"}, {"Rome", "Florence"}, {"Mexico City"}, {"Reykjavik"}, {"Cape Town"}
+    };
+    private static final String[] CATEGORIES = {"food", "transport", "accommodation", "activities", "shopping"};
+
+    private final VoyageClient client;
+    private final LoadTestOptions options;
+
+    UserJourney(VoyageClient client, LoadTestOptions options) {
+        this.client = client;
+        this.options = options;
+    }
+
+    void run() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String runId = UUID.randomUUID().toString();
+
+        think();
+        Map<String, Object> registration = new LinkedHashMap<>();
+        registration.put("email", "loadtest-" + runId + "@example.com");
+        registration.put("password", "loadtest-" + runId.substring(0, 8));
+        registration.put("fullName", "Load Test " + runId.substring(0, 8));
+        JsonNode auth = client.post(REGISTER, "/api/auth/register", registration);
+        client.authenticate(auth.path("accessToken").asText());
+
+        think();
+        String[] destinations = DESTINATIONS[random.nextInt(DESTINATIONS.length)];
+        LocalDate startDate = LocalDate.now().plusDays(14 + random.nextInt(120));
+        LocalDate endDate = startDate.plusDays(options.tripDays() - 1);
+        Map<String, Object> generate = new LinkedHashMap<>();
+        generate.put("destinations", List.of(destinations));
+        generate.put("startDate", startDate.toString());
+        generate.put("endDate", endDate.toString());
+        generate.put("travelType", "leisure");
+        generate.put("budget", "moderate");
+        JsonNode generated = client.post(GENERATE, "/api/itineraries/generate", generate);
+
+        think();
+        Map<String, Object> save = new LinkedHashMap<>();
+        save.put("name", generated.path("name").asText("Load test trip"));
+        save.put("destinations", generated.path("destinations"));
+        save.put("startDate", startDate.toString());
+        save.put("endDate", endDate.toString());
+        save.put("travelType", generated.path("travelType").asText(null));
+        save.put("days", generated.path("days"));
+        JsonNode itinerary = client.post(SAVE_GENERATED, "/api/itineraries/save-generated", save);
+        String itineraryId = itinerary.path("id").asText();
+        String currency = itinerary.path("baseCurrency").asText("USD");
+
+        List<String> participantIds = new ArrayList<>();
+        for (int i = 1; i <= options.participants(); i++) {
+            think();
+            Map<String, Object> participant = new LinkedHashMap<>();
+            participant.put("name", "Companion " + i);
+            participant.put("email", "companion-" + i + "-" + runId + "@example.com");
+            JsonNode added = client.post(ADD_PARTICIPANT, "/api/participants/itinerary/" + itineraryId, participant);
+            participantIds.add(added.path("id").asText());
+        }
+
+        for (int i = 1; i <= options.expenses(); i++) {
+            think();
+            Map<String, Object> expense = new LinkedHashMap<>();
+            expense.put("itineraryId", itineraryId);
+            expense.put("paidByParticipantId", participantIds.isEmpty()
+                    ? null : participantIds.get(random.nextInt(participantIds.size())));
+            expense.put("amount", String.format("%d.%02d", 5 + random.nextInt(300), random.nextInt(100)));
+            expense.put("currency", currency);
+            expense.put("category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            expense.put("description", "Expense " + i);
+            expense.put("date", startDate.plusDays(random.nextInt(options.tripDays())).toString());
+            expense.put("splitType", "equal");
+            client.post(CREATE_EXPENSE, "/api/expenses/itinerary/" + itineraryId, expense);
+        }
+
+        for (int i = 1; i <= options.documents(); i++) {
+            think();
+            client.upload(UPLOAD_DOCUMENT, "/api/documents/itinerary/" + itineraryId,
+                    "booking-" + i + ".pdf", "application/pdf", bookingPdf(runId, i),
+                    Map.of("documentType", "booking"));
+        }
+
+        think();
+        client.get(EXPENSE_SUMMARY, "/api/expenses/itinerary/" + itineraryId + "/summary");
+
+        think();
+        client.get(GET_ITINERARY, "/api/itineraries/" + itineraryId);
+    }
+
+    private void think() {
+        LatencyDistribution.sleep(options.thinkTime().sampleMillis());
+    }
+
+    /**
+     * A minimal PDF padded to the configured size. The run id keeps the content
+     * unique so uploads exercise storage rather than content deduplication.
+     */
+    private byte[] bookingPdf(String runId, int index) {
+        String header = "%PDF-1.4\n% booking " + runId + " #" + index + "\n";
+        String trailer = "\n%%EOF\n";
+        int padding = Math.max(0, options.documentBytes() - header.length() - trailer.length());
+        byte[] pdf = new byte[header.length() + padding + trailer.length()];
+        byte[] headerBytes = header.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(headerBytes, 0, pdf, 0, headerBytes.length);
+        for (int i = 0; i < padding; i++) {
+            pdf[headerBytes.length + i] = (byte) ('a' + i % 26);
+        }
+        byte[] trailerBytes = trailer.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(trailerBytes, 0, pdf, headerBytes.length + padding, trailerBytes.length);
+        return pdf;
+    }
+}
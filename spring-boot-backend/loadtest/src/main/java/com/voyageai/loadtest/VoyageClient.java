@@ -0,0 +1,116 @@
+package com.voyageai.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Thin JSON client for the backend API that times every call into
+ * {@link LatencyStats} under the endpoint's route template, so requests for
+ * different trips aggregate into one row.
+ */
+class VoyageClient {
+
+    /** A call that failed; the rest of the journey depends on it, so it is abandoned. */
+    static class CallFailedException extends RuntimeException {
+        CallFailedException(String message) {
+            super(message);
+        }
+    }
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LatencyStats stats;
+    private final String baseUrl;
+    private final Duration timeout;
+    private String accessToken;
+
+    VoyageClient(HttpClient httpClient, ObjectMapper objectMapper, LatencyStats stats, String baseUrl, Duration timeout) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.stats = stats;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+    }
+
+    void authenticate(String accessToken) {
+        this.accessToken = accessToken;
+    }
+
+    JsonNode get(String route, String path) {
+        return send(route, request(path).GET());
+    }
+
+    JsonNode post(String route, String path, Object body) {
+        try {
+            return send(route, request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unserializable request body", e);
+        }
+    }
+
+    JsonNode upload(String route, String path, String fileName, String contentType, byte[] content,
+                    Map<String, String> fields) {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 512);
+        fields.forEach((name, value) -> body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8)));
+        body.writeBytes(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return send(route, request(path)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+        if (accessToken != null) {
+            builder.header("Authorization", "Bearer " + accessToken);
+        }
+        return builder;
+    }
+
+    private JsonNode send(String route, HttpRequest.Builder builder) {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            stats.record(route, System.nanoTime() - start, false);
+            throw new CallFailedException(route + " failed: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CallFailedException(route + " interrupted");
+        }
+        boolean success = response.statusCode() < 400;
+        stats.record(route, System.nanoTime() - start, success);
+        if (!success) {
+            throw new CallFailedException(route + " returned " + response.statusCode() + ": "
+                    + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        try {
+            return response.body().length == 0 ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new CallFailedException(route + " returned unreadable JSON: " + e.getMessage());
+        }
+    }
+}
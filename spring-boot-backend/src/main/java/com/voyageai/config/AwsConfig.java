@@ -4,11 +4,18 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+import java.net.URI;
+
 @Configuration
 public class AwsConfig {
 
@@ -21,36 +28,69 @@ public class AwsConfig {
     @Value("${aws.s3.region:us-east-1}")
     private String region;
 
+    // Optional endpoint for S3-compatible stand-ins such as MinIO
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${aws.s3.path-style-access:false}")
+    private boolean pathStyleAccess;
+
+    @Value("${aws.s3.async.max-concurrency:64}")
+    private int asyncMaxConcurrency;
+
     @Bean
-    public S3Client s3Client() {
-        if (accessKey.isEmpty() || secretKey.isEmpty()) {
-            // Use default credentials provider chain (IAM roles, etc.)
-            return S3Client.builder()
-                    .region(Region.of(region))
-                    .build();
+    public S3Client s3Client(S3MetricPublisher metricPublisher) {
+        var builder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(s3Configuration())
+                .overrideConfiguration(o -> o.addMetricPublisher(metricPublisher)
+                        .addExecutionInterceptor(new S3FlightRecorderInterceptor()));
+        if (!endpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(endpoint));
         }
-        
-        return S3Client.builder()
+        return builder.build();
+    }
+
+    @Bean
+    public S3AsyncClient s3AsyncClient(S3MetricPublisher metricPublisher) {
+        var builder = S3AsyncClient.builder()
                 .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKey, secretKey)
-                ))
-                .build();
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(s3Configuration())
+                .overrideConfiguration(o -> o.addMetricPublisher(metricPublisher)
+                        .addExecutionInterceptor(new S3FlightRecorderInterceptor()))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(asyncMaxConcurrency));
+        if (!endpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
     }
 
     @Bean
     public S3Presigner s3Presigner() {
+        var builder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider())
+                .serviceConfiguration(s3Configuration());
+        if (!endpoint.isEmpty()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    private AwsCredentialsProvider credentialsProvider() {
         if (accessKey.isEmpty() || secretKey.isEmpty()) {
-            return S3Presigner.builder()
-                    .region(Region.of(region))
-                    .build();
+            // Use default credentials provider chain (IAM roles, etc.)
+            return DefaultCredentialsProvider.create();
         }
-        
-        return S3Presigner.builder()
-                .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(
-                        AwsBasicCredentials.create(accessKey, secretKey)
-                ))
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+    }
+
+    private S3Configuration s3Configuration() {
+        return S3Configuration.builder()
+                .pathStyleAccessEnabled(pathStyleAccess)
                 .build();
     }
 }
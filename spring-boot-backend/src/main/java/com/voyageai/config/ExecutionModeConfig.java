@@ -0,0 +1,83 @@
+package com.voyageai.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in virtual-thread mode. Setting spring.threads.virtual.enabled switches
+ * Tomcat request handling, the application task executor and the scheduler to
+ * virtual threads. The code targets Java 17 but the container image runs Java 21,
+ * which virtual threads need; on an older runtime only the JDBC cap below takes
+ * effect and a warning is logged. Because request concurrency is then bounded
+ * only by load, JDBC checkouts are capped with a semaphore sized to the pool, and
+ * SlowEventLogger reports virtual threads pinned to their carrier.
+ */
+@Configuration
+@Slf4j
+public class ExecutionModeConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @PostConstruct
+    void logMode() {
+        if (!virtualThreads) {
+            return;
+        }
+        if (Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled is set but the JVM is {}; virtual threads need Java 21, "
+                    + "so only the JDBC concurrency cap applies and requests stay on platform threads", Runtime.version());
+        } else {
+            log.info("Virtual-thread execution mode enabled");
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "datasource.concurrency-limit.enabled", havingValue = "true")
+    static JdbcConcurrencyLimiter jdbcConcurrencyLimiter(Environment environment) {
+        int maxConcurrent = environment.getProperty("datasource.concurrency-limit.max-concurrent", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        long acquireTimeoutMs = environment.getProperty("datasource.concurrency-limit.acquire-timeout-ms", Long.class, 30000L);
+
+        return new JdbcConcurrencyLimiter(maxConcurrent, acquireTimeoutMs);
+    }
+
+    /**
+     * Wraps the pool itself, ahead of read-replica routing, so the cap is sized to
+     * and only spent on primary connections; replica reads use their own pools.
+     */
+    static class JdbcConcurrencyLimiter implements BeanPostProcessor, PriorityOrdered {
+
+        private final int maxConcurrent;
+        private final long acquireTimeoutMs;
+
+        JdbcConcurrencyLimiter(int maxConcurrent, long acquireTimeoutMs) {
+            this.maxConcurrent = maxConcurrent;
+            this.acquireTimeoutMs = acquireTimeoutMs;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                log.info("Limiting JDBC concurrency of {} to {} connections", beanName, maxConcurrent);
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, acquireTimeoutMs);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
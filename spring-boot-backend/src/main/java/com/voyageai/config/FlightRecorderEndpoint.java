@@ -0,0 +1,230 @@
+package com.voyageai.config;
+
+import com.voyageai.entity.User;
+import com.voyageai.entity.UserRole;
+import com.voyageai.repository.UserRoleRepository;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Starts, lists, downloads and stops Flight Recorder recordings at
+ * {@code /actuator/jfr}, so a latency spike can be profiled in place without
+ * attaching a profiler. Recordings capture environment variables and system
+ * properties, so every operation is limited to admins.
+ *
+ * <ul>
+ *   <li>{@code POST /actuator/jfr} with optional {@code name}, {@code settings}
+ *       ({@code default} or {@code profile}) and {@code duration}</li>
+ *   <li>{@code GET /actuator/jfr} lists recordings</li>
+ *   <li>{@code GET /actuator/jfr/{id}} downloads a snapshot, also while recording</li>
+ *   <li>{@code DELETE /actuator/jfr/{id}} stops and discards a recording</li>
+ * </ul>
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+@Slf4j
+public class FlightRecorderEndpoint {
+
+    private static final List<String> SETTINGS = List.of("default", "profile");
+
+    private final UserRoleRepository userRoleRepository;
+
+    @Value("${diagnostics.jfr.dump-directory:${java.io.tmpdir}/voyage-jfr}")
+    private String dumpDirectory;
+
+    @Value("${diagnostics.jfr.max-duration:30m}")
+    private Duration maxDuration;
+
+    @Value("${diagnostics.jfr.max-age:15m}")
+    private Duration maxAge;
+
+    @ReadOperation
+    public WebEndpointResponse<List<RecordingDescriptor>> recordings(Principal principal) {
+        if (!isAdmin(principal)) {
+            return forbidden();
+        }
+        if (!FlightRecorder.isAvailable()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        return new WebEndpointResponse<>(FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .map(RecordingDescriptor::of)
+                .toList());
+    }
+
+    /**
+     * Starts a recording. Without a duration it runs until deleted, keeping
+     * only the last {@code diagnostics.jfr.max-age} of data; durations are
+     * capped at {@code diagnostics.jfr.max-duration}.
+     */
+    @WriteOperation
+    public WebEndpointResponse<RecordingDescriptor> start(Principal principal, @Nullable String name,
+                                                          @Nullable String settings, @Nullable Duration duration) {
+        if (!isAdmin(principal)) {
+            return forbidden();
+        }
+        if (!FlightRecorder.isAvailable()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        String settingsName = settings != null ? settings : "default";
+        if (!SETTINGS.contains(settingsName)
+                || (duration != null && (duration.isNegative() || duration.isZero()))) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Flight Recorder settings '" + settingsName + "' could not be loaded", e);
+        }
+
+        // The slow event stream enables the application's events with thresholds, and JFR applies
+        // them to every recording unless the recording sets its own
+        Map<String, String> recordingSettings = new HashMap<>(configuration.getSettings());
+        for (String event : SlowEventLogger.EVENT_NAMES) {
+            recordingSettings.put(event + "#enabled", "true");
+            recordingSettings.put(event + "#threshold", "0 ms");
+        }
+        Recording recording = new Recording(recordingSettings);
+        recording.setName(name != null ? name : "voyage-" + Instant.now());
+        recording.setToDisk(true);
+        if (duration != null) {
+            recording.setDuration(duration.compareTo(maxDuration) > 0 ? maxDuration : duration);
+        } else {
+            recording.setMaxAge(maxAge);
+        }
+        recording.start();
+        log.info("Started Flight Recorder recording {} ({}, {}) for {}", recording.getId(), recording.getName(),
+                settingsName, principal.getName());
+        return new WebEndpointResponse<>(RecordingDescriptor.of(recording), WebEndpointResponse.STATUS_OK);
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Resource> dump(Principal principal, @Selector long id) throws IOException {
+        if (!isAdmin(principal)) {
+            return forbidden();
+        }
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path directory = Files.createDirectories(Path.of(dumpDirectory));
+        Path file = Files.createTempFile(directory, "recording-" + id + "-", ".jfr");
+        try {
+            recording.get().dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return new WebEndpointResponse<>(new TemporaryFileSystemResource(file.toFile()), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<RecordingDescriptor> stop(Principal principal, @Selector long id) {
+        if (!isAdmin(principal)) {
+            return forbidden();
+        }
+        Optional<Recording> found = find(id);
+        if (found.isEmpty()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Recording recording = found.get();
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        RecordingDescriptor descriptor = RecordingDescriptor.of(recording);
+        recording.close();
+        log.info("Closed Flight Recorder recording {} ({}) for {}", id, recording.getName(), principal.getName());
+        return new WebEndpointResponse<>(descriptor, WebEndpointResponse.STATUS_OK);
+    }
+
+    private Optional<Recording> find(long id) {
+        if (!FlightRecorder.isAvailable()) {
+            return Optional.empty();
+        }
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst();
+    }
+
+    private boolean isAdmin(Principal principal) {
+        return principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof User user
+                && userRoleRepository.hasRole(user.getId(), UserRole.AppRole.ADMIN);
+    }
+
+    private static <T> WebEndpointResponse<T> forbidden() {
+        return new WebEndpointResponse<>(HttpStatus.FORBIDDEN.value());
+    }
+
+    public record RecordingDescriptor(long id, String name, String state, Instant startTime, Duration duration,
+                                      Duration maxAge, long size) {
+
+        static RecordingDescriptor of(Recording recording) {
+            return new RecordingDescriptor(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getDuration(), recording.getMaxAge(), recording.getSize());
+        }
+    }
+
+    /**
+     * Deletes the dump once the response body has been written.
+     */
+    private static final class TemporaryFileSystemResource extends FileSystemResource {
+
+        private TemporaryFileSystemResource(File file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // Keeps Spring MVC from serving the file by path and skipping the stream that deletes it
+            return false;
+        }
+    }
+}
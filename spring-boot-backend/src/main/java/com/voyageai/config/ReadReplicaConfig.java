@@ -0,0 +1,95 @@
+package com.voyageai.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * Read-replica routing. The primary data source is wrapped in a
+ * {@link LazyConnectionDataSourceProxy}, which defers fetching a physical
+ * connection until the first statement. By then a
+ * {@code @Transactional(readOnly = true)} transaction has marked its connection
+ * read-only, and the proxy takes it from {@link ReadReplicaRouter} instead of the
+ * primary pool. When the router declines, the read runs on a read-only primary
+ * connection, as it did before routing.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.read-replicas.enabled", havingValue = "true")
+@Slf4j
+public class ReadReplicaConfig {
+
+    @Bean
+    static ReadReplicaRoutingPostProcessor readReplicaRouting(ObjectProvider<ReadReplicaRouter> router) {
+        return new ReadReplicaRoutingPostProcessor(router);
+    }
+
+    /**
+     * Wraps after the JDBC concurrency cap, so the cap guards only primary
+     * connections, and ahead of statement counting, so replica reads are still
+     * counted.
+     */
+    static class ReadReplicaRoutingPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        private final ObjectProvider<ReadReplicaRouter> router;
+
+        ReadReplicaRoutingPostProcessor(ObjectProvider<ReadReplicaRouter> router) {
+            this.router = router;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource primary && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                log.info("Routing read-only transactions on {} through read replicas", beanName);
+                LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+                proxy.setReadOnlyDataSource(new ReplicaOrPrimaryDataSource(router, primary));
+                return proxy;
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE + 1;
+        }
+    }
+
+    private static final class ReplicaOrPrimaryDataSource extends AbstractDataSource {
+
+        private final ObjectProvider<ReadReplicaRouter> router;
+        private final DataSource primary;
+
+        private ReplicaOrPrimaryDataSource(ObjectProvider<ReadReplicaRouter> router, DataSource primary) {
+            this.router = router;
+            this.primary = primary;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection replica = router.getObject().replicaConnection();
+            if (replica != null) {
+                return replica;
+            }
+            // The lazy proxy leaves read-only to this data source; the pool resets it on return
+            Connection connection = primary.getConnection();
+            connection.setReadOnly(true);
+            return connection;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Read replica routing does not take explicit credentials");
+        }
+    }
+}
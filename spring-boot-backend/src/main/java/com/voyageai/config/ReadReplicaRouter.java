@@ -0,0 +1,228 @@
+package com.voyageai.config;
+
+import com.voyageai.entity.User;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks the database for read-only transactions started by the service layer.
+ * Reads go round-robin to replicas that passed their last health check, which
+ * fails a replica that is unreachable or lags the primary by more than
+ * {@code max-lag}. A user whose own write committed on this node within the
+ * read-your-writes window keeps reading from the primary. Read-only
+ * transactions opened elsewhere, such as the principal lookup during
+ * authentication, stay on the primary, so a just-registered user is never looked
+ * up on a replica that has not caught up.
+ *
+ * <p>Stickiness is per node; behind a load balancer without session affinity a
+ * user's next request may still read from a replica, bounded by {@code max-lag}.
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.read-replicas.enabled", havingValue = "true")
+@Slf4j
+public class ReadReplicaRouter implements TransactionExecutionListener {
+
+    private static final String ROUTED_TRANSACTION_PREFIX = "com.voyageai.service.";
+
+    // Zero when the replica has replayed everything it received, so an idle primary does not read as lag
+    private static final String LAG_QUERY = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END""";
+
+    private final MeterRegistry meterRegistry;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<UUID, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    private final Duration maxLag;
+    private final long readYourWritesNanos;
+    private final int healthCheckTimeoutSeconds;
+
+    public ReadReplicaRouter(MeterRegistry meterRegistry,
+                             @Value("${datasource.read-replicas.urls:}") String[] urls,
+                             @Value("${datasource.read-replicas.username:${spring.datasource.username:}}") String username,
+                             @Value("${datasource.read-replicas.password:${spring.datasource.password:}}") String password,
+                             @Value("${datasource.read-replicas.maximum-pool-size:10}") int maximumPoolSize,
+                             @Value("${datasource.read-replicas.connection-timeout-ms:2000}") long connectionTimeoutMs,
+                             @Value("${datasource.read-replicas.max-lag:5s}") Duration maxLag,
+                             @Value("${datasource.read-replicas.read-your-writes-window:5s}") Duration readYourWritesWindow,
+                             @Value("${datasource.read-replicas.health-check-timeout-seconds:2}") int healthCheckTimeoutSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.maxLag = maxLag;
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        this.healthCheckTimeoutSeconds = healthCheckTimeoutSeconds;
+
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(url.trim());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setReadOnly(true);
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setConnectionTimeout(connectionTimeoutMs);
+            // Start even if a replica is down; it stays out of rotation until a health check passes
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+            Replica replica = new Replica(name, pool);
+            replicas.add(replica);
+            meterRegistry.gauge("voyage.db.replica.lag", Tags.of("replica", name), replica, r -> r.lagSeconds);
+            meterRegistry.gauge("voyage.db.replica.healthy", Tags.of("replica", name), replica, r -> r.healthy ? 1 : 0);
+        }
+        if (replicas.isEmpty()) {
+            log.warn("datasource.read-replicas.enabled is set but no replica URLs are configured; all reads use the primary");
+        } else {
+            log.info("Routing read-only service transactions to {} replica(s), max lag {}, read-your-writes window {}",
+                    replicas.size(), maxLag, readYourWritesWindow);
+        }
+    }
+
+    /**
+     * Returns a connection to a healthy replica for the current read-only
+     * transaction, or {@code null} when it should run on the primary.
+     */
+    Connection replicaConnection() {
+        if (replicas.isEmpty() || !isRoutedTransaction()) {
+            return null;
+        }
+        if (wroteRecently()) {
+            countRead("primary", "read_your_writes");
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.pool.getConnection();
+                countRead(replica.name, "replica");
+                return connection;
+            } catch (SQLException e) {
+                markUnhealthy(replica, e.getMessage());
+            }
+        }
+        countRead("primary", "no_healthy_replica");
+        return null;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly()) {
+            return;
+        }
+        UUID userId = currentUserId();
+        if (userId != null) {
+            lastWriteNanos.put(userId, System.nanoTime());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.read-replicas.health-check-interval-ms:2000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(healthCheckTimeoutSeconds);
+                try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                    rs.next();
+                    double lag = rs.getDouble(1);
+                    replica.lagSeconds = lag;
+                    if (rs.wasNull()) {
+                        markUnhealthy(replica, "replay position unknown");
+                    } else if (lag > maxLag.toMillis() / 1000.0) {
+                        markUnhealthy(replica, String.format("%.1fs behind the primary", lag));
+                    } else if (!replica.healthy) {
+                        replica.healthy = true;
+                        log.info("Read replica {} is back in rotation ({}s behind)", replica.name, lag);
+                    }
+                }
+            } catch (SQLException e) {
+                markUnhealthy(replica, e.getMessage());
+            }
+            replica.checked = true;
+        }
+        long now = System.nanoTime();
+        lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt > readYourWritesNanos);
+    }
+
+    @PreDestroy
+    void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    // Set once the transaction is synchronized, which is before the lazy connection is first used
+    private static boolean isRoutedTransaction() {
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name != null && name.startsWith(ROUTED_TRANSACTION_PREFIX);
+    }
+
+    private boolean wroteRecently() {
+        UUID userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteNanos.get(userId);
+        return writtenAt != null && System.nanoTime() - writtenAt <= readYourWritesNanos;
+    }
+
+    private static UUID currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof User user ? user.getId() : null;
+    }
+
+    private void markUnhealthy(Replica replica, String reason) {
+        if (replica.healthy || !replica.checked) {
+            log.warn("Taking read replica {} out of rotation: {}", replica.name, reason);
+        }
+        replica.healthy = false;
+    }
+
+    private void countRead(String target, String reason) {
+        meterRegistry.counter("voyage.db.reads", "target", target, "reason", reason).increment();
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource pool;
+        private volatile boolean healthy;
+        private volatile boolean checked;
+        private volatile double lagSeconds;
+
+        private Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+}
@@ -1,14 +1,35 @@
 package com.voyageai.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${http.client.connect-timeout-ms:10000}")
+    private long connectTimeoutMs;
+
+    @Value("${http.client.read-timeout-ms:120000}")
+    private long readTimeoutMs;
+
+    /**
+     * The same timeout-bounded client in both execution modes; java.net.http also
+     * parks virtual threads while waiting on the AI provider instead of pinning
+     * their carrier.
+     */
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new RestTemplate(requestFactory);
     }
 }
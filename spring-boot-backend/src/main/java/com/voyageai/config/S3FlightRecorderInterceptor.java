@@ -0,0 +1,60 @@
+package com.voyageai.config;
+
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+
+/**
+ * Emits an {@link S3RequestEvent} for every call made through the S3 clients.
+ * The event begins before the first attempt and is committed once the call
+ * succeeds or finally fails; async calls commit on the SDK's completion thread.
+ */
+public class S3FlightRecorderInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<S3RequestEvent> EVENT = new ExecutionAttribute<>("VoyageS3RequestEvent");
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        S3RequestEvent event = new S3RequestEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        SdkRequest request = context.request();
+        event.operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        event.bucket = request.getValueForField("Bucket", String.class).orElse(null);
+        event.key = request.getValueForField("Key", String.class).orElse(null);
+        event.contentLength = request.getValueForField("ContentLength", Long.class).orElse(0L);
+        event.begin();
+        executionAttributes.putAttribute(EVENT, event);
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        S3RequestEvent event = executionAttributes.getAttribute(EVENT);
+        if (event == null) {
+            return;
+        }
+        SdkResponse response = context.response();
+        event.statusCode = context.httpResponse().statusCode();
+        if (event.contentLength == 0) {
+            event.contentLength = response.getValueForField("ContentLength", Long.class).orElse(0L);
+        }
+        event.outcome = "success";
+        event.commit();
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        S3RequestEvent event = executionAttributes.getAttribute(EVENT);
+        if (event == null) {
+            return;
+        }
+        context.httpResponse().ifPresent(response -> event.statusCode = response.statusCode());
+        event.outcome = context.exception().getClass().getSimpleName();
+        event.commit();
+    }
+}
@@ -0,0 +1,62 @@
+package com.voyageai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bridges the SDK's per-call metrics into Micrometer: one timer per S3 operation
+ * and outcome covering the whole call including retries, a retry counter, and
+ * the time each attempt waited for an HTTP connection, which is the first sign
+ * of a saturated client pool.
+ */
+@Component
+@RequiredArgsConstructor
+public class S3MetricPublisher implements MetricPublisher {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void publish(MetricCollection metrics) {
+        String operation = first(metrics, CoreMetric.OPERATION_NAME, "unknown");
+        boolean successful = first(metrics, CoreMetric.API_CALL_SUCCESSFUL, false);
+
+        Duration duration = first(metrics, CoreMetric.API_CALL_DURATION, null);
+        if (duration != null) {
+            meterRegistry.timer("voyage.s3.request", "operation", operation, "outcome", successful ? "success" : "error")
+                    .record(duration);
+        }
+        int retries = first(metrics, CoreMetric.RETRY_COUNT, 0);
+        if (retries > 0) {
+            meterRegistry.counter("voyage.s3.retries", "operation", operation).increment(retries);
+        }
+        forEach(metrics, HttpMetric.CONCURRENCY_ACQUIRE_DURATION, acquire -> meterRegistry
+                .timer("voyage.s3.connection.acquire", "operation", operation).record(acquire));
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static <T> T first(MetricCollection metrics, SdkMetric<T> metric, T defaultValue) {
+        List<T> values = metrics.metricValues(metric);
+        return values.isEmpty() ? defaultValue : values.get(0);
+    }
+
+    // Attempt and HTTP client metrics live in child collections
+    private static <T> void forEach(MetricCollection metrics, SdkMetric<T> metric, Consumer<T> action) {
+        metrics.metricValues(metric).forEach(action);
+        for (MetricCollection child : metrics.children()) {
+            forEach(child, metric, action);
+        }
+    }
+}
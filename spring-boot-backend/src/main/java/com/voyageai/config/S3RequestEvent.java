@@ -0,0 +1,38 @@
+package com.voyageai.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one S3 API call including its retries. For
+ * streamed downloads it ends when the response headers arrive, not when the
+ * body has been read.
+ */
+@Name("voyage.S3Request")
+@Label("S3 Request")
+@Category({"Voyage", "S3"})
+@Description("S3 API call made through the SDK clients")
+class S3RequestEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Bucket")
+    String bucket;
+
+    @Label("Key")
+    String key;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Content Length")
+    @DataAmount
+    long contentLength;
+
+    @Label("Outcome")
+    String outcome;
+}
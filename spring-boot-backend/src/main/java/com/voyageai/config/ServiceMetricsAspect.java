@@ -0,0 +1,43 @@
+package com.voyageai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the application's services as
+ * {@code voyage.service.method}, tagged with class, method and the exception
+ * thrown, if any. Calls a service makes on itself bypass the proxy and are
+ * counted as part of the caller; methods returning a lazy stream or response
+ * body are timed only up to the return.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "metrics.service-methods.enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("within(com.voyageai.service..*) && @within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("voyage.service.method",
+                    "class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                    "method", joinPoint.getSignature().getName(),
+                    "exception", exception));
+        }
+    }
+}
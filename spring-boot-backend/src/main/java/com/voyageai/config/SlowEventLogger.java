@@ -0,0 +1,139 @@
+package com.voyageai.config;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Always-on Flight Recorder stream that logs the application's events (AI and
+ * S3 calls, transactions, JWT verification) once they exceed a per-type
+ * threshold. Events under the threshold are filtered inside the JVM and never
+ * reach the stream, so the steady-state cost is the events' own begin/commit.
+ * Slow events surface within about a second, the stream's flush interval.
+ * In virtual-thread mode on Java 21 the stream also logs, with a short stack,
+ * every virtual thread pinned to its carrier for longer than a threshold.
+ */
+@Component
+@Slf4j
+public class SlowEventLogger implements SmartLifecycle {
+
+    private static final String AI_REQUEST = "voyage.AiRequest";
+    private static final String S3_REQUEST = "voyage.S3Request";
+    private static final String TRANSACTION = "voyage.Transaction";
+    private static final String JWT_VERIFICATION = "voyage.JwtVerification";
+    private static final String VIRTUAL_THREAD_PINNED = "jdk.VirtualThreadPinned";
+    private static final int PINNED_STACK_DEPTH = 8;
+
+    static final List<String> EVENT_NAMES = List.of(AI_REQUEST, S3_REQUEST, TRANSACTION, JWT_VERIFICATION);
+
+    private static final Set<String> BUILT_IN_FIELDS = Set.of("startTime", "duration", "eventThread", "stackTrace");
+
+    @Value("${diagnostics.jfr.slow-events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${diagnostics.jfr.slow-events.ai-request-threshold:20s}")
+    private Duration aiRequestThreshold;
+
+    @Value("${diagnostics.jfr.slow-events.s3-request-threshold:1s}")
+    private Duration s3RequestThreshold;
+
+    @Value("${diagnostics.jfr.slow-events.transaction-threshold:500ms}")
+    private Duration transactionThreshold;
+
+    @Value("${diagnostics.jfr.slow-events.jwt-verification-threshold:50ms}")
+    private Duration jwtVerificationThreshold;
+
+    @Value("${diagnostics.jfr.slow-events.virtual-thread-pinned-threshold:20ms}")
+    private Duration virtualThreadPinnedThreshold;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private volatile RecordingStream stream;
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("Flight Recorder is not available in this JVM, slow event logging is disabled");
+            return;
+        }
+        Map<String, Duration> thresholds = Map.of(
+                AI_REQUEST, aiRequestThreshold,
+                S3_REQUEST, s3RequestThreshold,
+                TRANSACTION, transactionThreshold,
+                JWT_VERIFICATION, jwtVerificationThreshold);
+
+        RecordingStream recordingStream = new RecordingStream();
+        thresholds.forEach((name, threshold) -> {
+            recordingStream.enable(name).withThreshold(threshold).withoutStackTrace();
+            // Recordings started from the actuator endpoint may enable the same
+            // events with a lower threshold, and the stream sees those too
+            recordingStream.onEvent(name, event -> {
+                if (event.getDuration().compareTo(threshold) >= 0) {
+                    logSlowEvent(event);
+                }
+            });
+        });
+        if (virtualThreads && Runtime.version().feature() >= 21) {
+            recordingStream.enable(VIRTUAL_THREAD_PINNED).withThreshold(virtualThreadPinnedThreshold).withStackTrace();
+            recordingStream.onEvent(VIRTUAL_THREAD_PINNED, SlowEventLogger::logPinnedThread);
+            log.info("Logging virtual threads pinned for over {}", virtualThreadPinnedThreshold);
+        }
+        recordingStream.setMaxAge(Duration.ofMinutes(1));
+        recordingStream.startAsync();
+        stream = recordingStream;
+        log.info("Logging slow Flight Recorder events over {}", thresholds);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recordingStream = stream;
+        stream = null;
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private static void logPinnedThread(RecordedEvent event) {
+        String stack = event.getStackTrace() == null ? "no stack trace" : event.getStackTrace().getFrames().stream()
+                .limit(PINNED_STACK_DEPTH)
+                .map(SlowEventLogger::formatFrame)
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        log.warn("Virtual thread pinned to its carrier for {} ms on {}:{}", event.getDuration().toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : "unknown thread", stack);
+    }
+
+    private static String formatFrame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static void logSlowEvent(RecordedEvent event) {
+        String fields = event.getFields().stream()
+                .map(ValueDescriptor::getName)
+                .filter(name -> !BUILT_IN_FIELDS.contains(name))
+                .map(name -> name + "=" + event.getValue(name))
+                .collect(Collectors.joining(" "));
+        log.warn("Slow {} took {} ms on {}: {}", event.getEventType().getLabel(), event.getDuration().toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : "unknown thread", fields);
+    }
+}
@@ -0,0 +1,114 @@
+package com.voyageai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Opens a statement-tracking scope around each request and, once it completes,
+ * records the statement count and database time per endpoint. Requests over the
+ * warning threshold, or that repeat one query shape often enough to suggest an
+ * N+1 pattern, are logged with their most repeated fingerprints. Runs ahead of
+ * the security chain, so authentication queries are included.
+ */
+@Slf4j
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final int MAX_LOGGED_FINGERPRINTS = 3;
+    private static final int FINGERPRINT_HEAD = 120;
+    private static final int FINGERPRINT_TAIL = 120;
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+    private final int repeatThreshold;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets;
+    private final boolean failOnBudgetExceeded;
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry, int warnThreshold, int repeatThreshold,
+                                     int defaultBudget, Map<String, Integer> budgets, boolean failOnBudgetExceeded) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+        this.repeatThreshold = repeatThreshold;
+        this.defaultBudget = defaultBudget;
+        this.budgets = budgets;
+        this.failOnBudgetExceeded = failOnBudgetExceeded;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        try (SqlStatementTracker.Scope scope = SqlStatementTracker.begin(() -> budgetFor(request), failOnBudgetExceeded)) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                report(request, scope);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementTracker.Scope scope) {
+        String endpoint = endpoint(request);
+        String uri = route(request);
+        meterRegistry.summary("voyage.db.statements", "method", request.getMethod(), "uri", uri).record(scope.count());
+        meterRegistry.timer("voyage.db.time", "method", request.getMethod(), "uri", uri)
+                .record(scope.nanos(), TimeUnit.NANOSECONDS);
+
+        List<Map.Entry<String, Integer>> repeated = scope.repeated(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            meterRegistry.counter("voyage.db.n_plus_one", "method", request.getMethod(), "uri", uri).increment();
+        }
+        int budget = scope.budget();
+        boolean overBudget = budget > 0 && scope.count() > budget;
+        if (scope.count() > warnThreshold || overBudget || !repeated.isEmpty()) {
+            log.warn("{} ran {} SQL statements ({} ms in the database{}){}", endpoint, scope.count(),
+                    TimeUnit.NANOSECONDS.toMillis(scope.nanos()),
+                    overBudget ? ", budget " + budget : "",
+                    repeated.isEmpty() ? "" : "; repeated: " + describe(repeated));
+        }
+    }
+
+    private int budgetFor(HttpServletRequest request) {
+        return budgets.getOrDefault(endpoint(request), defaultBudget);
+    }
+
+    private static String describe(List<Map.Entry<String, Integer>> repeated) {
+        return repeated.stream()
+                .limit(MAX_LOGGED_FINGERPRINTS)
+                .map(entry -> entry.getValue() + "x " + abbreviate(entry.getKey()))
+                .collect(Collectors.joining("; "));
+    }
+
+    // Keeps both ends: the table is near the start and the predicate that differs per row near the end
+    private static String abbreviate(String sql) {
+        if (sql.length() <= FINGERPRINT_HEAD + FINGERPRINT_TAIL) {
+            return sql;
+        }
+        return sql.substring(0, FINGERPRINT_HEAD) + " ... " + sql.substring(sql.length() - FINGERPRINT_TAIL);
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        return request.getMethod() + " " + route(request);
+    }
+
+    // The handler's path pattern keeps the tag bounded; it is set once the request has been mapped
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
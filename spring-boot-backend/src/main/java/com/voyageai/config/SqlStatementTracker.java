@@ -0,0 +1,110 @@
+package com.voyageai.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-bound tally of the JDBC statements a request executes. The request
+ * filter opens a scope, {@link StatementCountingDataSource} records into it,
+ * and statements executed on other threads (async work, schedulers) are not
+ * attributed to any request.
+ */
+final class SqlStatementTracker {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlStatementTracker() {
+    }
+
+    static Scope begin(IntSupplier budget, boolean failOnBudgetExceeded) {
+        Scope scope = new Scope(budget, failOnBudgetExceeded);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static Scope current() {
+        return CURRENT.get();
+    }
+
+    static final class Scope implements AutoCloseable {
+
+        private final IntSupplier budget;
+        private final boolean failOnBudgetExceeded;
+        // Keyed by raw SQL: prepared statements repeat the identical string, so
+        // normalizing is deferred until a report is needed
+        private final Map<String, Integer> executions = new HashMap<>();
+        private int count;
+        private long nanos;
+
+        private Scope(IntSupplier budget, boolean failOnBudgetExceeded) {
+            this.budget = budget;
+            this.failOnBudgetExceeded = failOnBudgetExceeded;
+        }
+
+        /** Called before a statement runs, so a strict budget stops the statement that would exceed it. */
+        void beforeExecute(String sql) {
+            if (!failOnBudgetExceeded) {
+                return;
+            }
+            int limit = budget.getAsInt();
+            if (limit > 0 && count >= limit) {
+                throw new IllegalStateException("SQL statement budget of " + limit + " exceeded by: " + fingerprint(sql));
+            }
+        }
+
+        void afterExecute(String sql, long elapsedNanos) {
+            count++;
+            nanos += elapsedNanos;
+            executions.merge(sql, 1, Integer::sum);
+        }
+
+        int count() {
+            return count;
+        }
+
+        long nanos() {
+            return nanos;
+        }
+
+        int budget() {
+            return budget.getAsInt();
+        }
+
+        /** Fingerprints executed at least {@code threshold} times, most repeated first. */
+        List<Map.Entry<String, Integer>> repeated(int threshold) {
+            Map<String, Integer> byFingerprint = new LinkedHashMap<>();
+            executions.forEach((sql, times) -> byFingerprint.merge(fingerprint(sql), times, Integer::sum));
+            List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : byFingerprint.entrySet()) {
+                if (entry.getValue() >= threshold) {
+                    repeated.add(entry);
+                }
+            }
+            repeated.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            CURRENT.remove();
+        }
+    }
+
+    /** Replaces literals with placeholders and collapses IN lists, so one query shape maps to one key. */
+    static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+}
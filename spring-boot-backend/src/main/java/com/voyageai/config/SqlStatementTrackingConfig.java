@@ -0,0 +1,65 @@
+package com.voyageai.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Per-request SQL statement counting. The data source is wrapped so statements
+ * can be attributed to the request running on the thread, and a filter turns
+ * each request's tally into metrics and N+1 warnings. With
+ * {@code datasource.statement-tracking.fail-on-budget-exceeded} set (meant for
+ * integration test runs), a request that goes over its budget fails with a 500
+ * at the first statement past it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.statement-tracking.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SqlStatementTrackingConfig {
+
+    @Bean
+    static BeanPostProcessor sqlStatementCounter() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    log.info("Counting SQL statements per request on {}", beanName);
+                    return new StatementCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(MeterRegistry meterRegistry,
+                                                                                Environment environment) {
+        // Keys are "METHOD /route/{pattern}", written as "[GET /api/itineraries/{id}]" in YAML
+        Map<String, Integer> budgets = Binder.get(environment)
+                .bind("datasource.statement-tracking.budgets", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+
+        SqlStatementMetricsFilter filter = new SqlStatementMetricsFilter(meterRegistry,
+                environment.getProperty("datasource.statement-tracking.warn-threshold", Integer.class, 50),
+                environment.getProperty("datasource.statement-tracking.repeat-threshold", Integer.class, 10),
+                environment.getProperty("datasource.statement-tracking.default-budget", Integer.class, 0),
+                budgets,
+                environment.getProperty("datasource.statement-tracking.fail-on-budget-exceeded", Boolean.class, false));
+
+        FilterRegistrationBean<SqlStatementMetricsFilter> registration = new FilterRegistrationBean<>(filter);
+        // Ahead of Spring Security so authentication queries are counted too
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,29 @@
+package com.voyageai.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning a physical transaction, from begin to commit
+ * or rollback. Methods joining an existing transaction are not recorded
+ * separately.
+ */
+@Name("voyage.Transaction")
+@Label("Transaction")
+@Category({"Voyage", "Database"})
+@Description("Transaction started by the application's transaction manager")
+@StackTrace(false)
+class TransactionEvent extends jdk.jfr.Event {
+
+    @Label("Name")
+    String name;
+
+    @Label("Read Only")
+    boolean readOnly;
+
+    @Label("Outcome")
+    String outcome;
+}
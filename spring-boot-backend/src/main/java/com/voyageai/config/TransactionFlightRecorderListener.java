@@ -0,0 +1,60 @@
+package com.voyageai.config;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Emits a {@link TransactionEvent} per physical transaction. Spring Boot
+ * registers listener beans with the auto-configured transaction manager, which
+ * only notifies them for new transactions, so both {@code @Transactional}
+ * methods and {@code TransactionTemplate} blocks are covered. Transactions
+ * begin and complete on the same thread, and a suspended outer transaction
+ * always completes after the inner one, so a per-thread stack pairs them.
+ */
+@Component
+public class TransactionFlightRecorderListener implements TransactionExecutionListener {
+
+    private static final ThreadLocal<Deque<TransactionEvent>> OPEN = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeBegin(TransactionExecution transaction) {
+        TransactionEvent event = new TransactionEvent();
+        event.name = transaction.getTransactionName();
+        event.readOnly = transaction.isReadOnly();
+        event.begin();
+        OPEN.get().push(event);
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null) {
+            complete("begin_failed");
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        complete(commitFailure == null ? "commit" : "commit_failed");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        complete(rollbackFailure == null ? "rollback" : "rollback_failed");
+    }
+
+    private static void complete(String outcome) {
+        Deque<TransactionEvent> open = OPEN.get();
+        TransactionEvent event = open.poll();
+        if (open.isEmpty()) {
+            OPEN.remove();
+        }
+        if (event != null) {
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.voyageai.controller;
+
+import com.voyageai.dto.admin.ReconciliationStatusDTO;
+import com.voyageai.dto.admin.StorageReconciliationStatusDTO;
+import com.voyageai.entity.User;
+import com.voyageai.service.BalanceReconciliationService;
+import com.voyageai.service.StorageReconciliationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Operational maintenance jobs")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminController {
+
+    private final BalanceReconciliationService balanceReconciliationService;
+    private final StorageReconciliationService storageReconciliationService;
+
+    @PostMapping("/reconciliation/balances")
+    @Operation(summary = "Start a balance reconciliation run")
+    public ResponseEntity<ReconciliationStatusDTO> startBalanceReconciliation(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "false") boolean repair
+    ) {
+        return ResponseEntity.accepted().body(balanceReconciliationService.start(repair, user));
+    }
+
+    @GetMapping("/reconciliation/balances")
+    @Operation(summary = "Get progress of the current or last balance reconciliation run")
+    public ResponseEntity<ReconciliationStatusDTO> getBalanceReconciliationStatus(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(balanceReconciliationService.getStatus(user));
+    }
+
+    @PostMapping("/reconciliation/storage")
+    @Operation(summary = "Start an orphaned storage object reconciliation run")
+    public ResponseEntity<StorageReconciliationStatusDTO> startStorageReconciliation(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "true") boolean dryRun
+    ) {
+        return ResponseEntity.accepted().body(storageReconciliationService.start(dryRun, user));
+    }
+
+    @GetMapping("/reconciliation/storage")
+    @Operation(summary = "Get progress of the current or last storage reconciliation run")
+    public ResponseEntity<StorageReconciliationStatusDTO> getStorageReconciliationStatus(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(storageReconciliationService.getStatus(user));
+    }
+}
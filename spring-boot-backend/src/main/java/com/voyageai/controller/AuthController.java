@@ -2,10 +2,12 @@ package com.voyageai.controller;
 
 import com.voyageai.dto.auth.*;
 import com.voyageai.entity.User;
+import com.voyageai.security.AuthRateLimiter;
 import com.voyageai.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -19,25 +21,57 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter authRateLimiter;
 
     @PostMapping("/register")
     @Operation(summary = "Register a new user")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<AuthResponse> register(
+            @Valid @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest
+    ) {
+        authRateLimiter.checkClient(httpRequest.getRemoteAddr());
         return ResponseEntity.ok(authService.register(request));
     }
 
     @PostMapping("/login")
     @Operation(summary = "Login with email and password")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest
+    ) {
+        authRateLimiter.checkClient(httpRequest.getRemoteAddr());
+        authRateLimiter.checkAccount(request.getEmail());
         return ResponseEntity.ok(authService.login(request));
     }
 
     @PostMapping("/refresh")
     @Operation(summary = "Refresh access token")
-    public ResponseEntity<AuthResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+    public ResponseEntity<AuthResponse> refreshToken(
+            @Valid @RequestBody RefreshTokenRequest request,
+            HttpServletRequest httpRequest
+    ) {
+        authRateLimiter.checkClient(httpRequest.getRemoteAddr());
         return ResponseEntity.ok(authService.refreshToken(request));
     }
 
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke the session a refresh token belongs to")
+    public ResponseEntity<Void> logout(
+            @Valid @RequestBody RefreshTokenRequest request,
+            HttpServletRequest httpRequest
+    ) {
+        authRateLimiter.checkClient(httpRequest.getRemoteAddr());
+        authService.logout(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/logout-all")
+    @Operation(summary = "Revoke every session of the current user", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<Void> logoutEverywhere(@AuthenticationPrincipal User user) {
+        authService.logoutEverywhere(user);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/me")
     @Operation(summary = "Get current user profile", security = @SecurityRequirement(name = "bearerAuth"))
     public ResponseEntity<UserDTO> getCurrentUser(@AuthenticationPrincipal User user) {
@@ -2,19 +2,34 @@ package com.voyageai.controller;
 
 import com.voyageai.dto.document.*;
 import com.voyageai.entity.User;
+import com.voyageai.service.DocumentPreviewService;
+import com.voyageai.service.DocumentSearchService;
 import com.voyageai.service.DocumentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,7 +40,13 @@ import java.util.UUID;
 @SecurityRequirement(name = "bearerAuth")
 public class DocumentController {
 
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final DocumentService documentService;
+    private final DocumentSearchService documentSearchService;
 
     @GetMapping("/itinerary/{itineraryId}")
     @Operation(summary = "Get all documents for an itinerary")
@@ -36,6 +57,20 @@ public class DocumentController {
         return ResponseEntity.ok(documentService.getDocuments(itineraryId, user));
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search documents across the current user's trips by text, booking details and extracted data")
+    public ResponseEntity<DocumentSearchResultDTO> searchDocuments(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) UUID itineraryId,
+            @RequestParam(required = false) String documentType,
+            @RequestParam(required = false) String data,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(documentSearchService.search(q, itineraryId, documentType, data, page, size, user));
+    }
+
     @GetMapping("/itinerary/{itineraryId}/type/{documentType}")
     @Operation(summary = "Get documents by type for an itinerary")
     public ResponseEntity<List<DocumentDTO>> getDocumentsByType(
@@ -57,6 +92,99 @@ public class DocumentController {
         return ResponseEntity.ok(documentService.uploadDocument(itineraryId, file, documentType, user));
     }
 
+    @PostMapping("/itinerary/{itineraryId}/upload-url")
+    @Operation(summary = "Get a presigned URL to upload a document directly to storage")
+    public ResponseEntity<PresignedUploadDTO> createUploadUrl(
+            @AuthenticationPrincipal User user,
+            @PathVariable UUID itineraryId,
+            @Valid @RequestBody PresignedUploadRequest request
+    ) {
+        return ResponseEntity.ok(documentService.createUploadUrl(itineraryId, request, user));
+    }
+
+    @PostMapping("/itinerary/{itineraryId}/complete-upload")
+    @Operation(summary = "Register a document after a direct upload has finished")
+    public ResponseEntity<DocumentDTO> completeUpload(
+            @AuthenticationPrincipal User user,
+            @PathVariable UUID itineraryId,
+            @Valid @RequestBody CompleteUploadRequest request
+    ) {
+        return ResponseEntity.ok(documentService.completeUpload(itineraryId, request, user));
+    }
+
+    @GetMapping("/{id}/download")
+    @Operation(summary = "Download a document, with HTTP Range support for partial and resumed downloads")
+    public ResponseEntity<StreamingResponseBody> downloadDocument(
+            @AuthenticationPrincipal User user,
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            HttpServletRequest request
+    ) {
+        DocumentService.DocumentDownload download = documentService.getDocumentDownload(id, user);
+        long size = download.size();
+
+        long start = 0;
+        long end = size - 1;
+        HttpStatus status = HttpStatus.OK;
+        if (range != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Multiple ranges are answered with the full body, which RFC 9110 allows
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                    status = HttpStatus.PARTIAL_CONTENT;
+                }
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                        .build();
+            }
+        }
+        long length = end - start + 1;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentType(download.contentType() != null
+                ? MediaType.parseMediaType(download.contentType())
+                : MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentLength(length);
+        headers.setContentDisposition(ContentDisposition.inline().filename(download.fileName(), StandardCharsets.UTF_8).build());
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        // Local files are handed to Tomcat, which sends them with sendfile after the handler returns
+        if (download.localFile().isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, download.localFile().get().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+
+        long offset = start;
+        StreamingResponseBody body = out -> documentService.transferDocument(download, offset, length, Channels.newChannel(out));
+        return ResponseEntity.status(status).headers(headers).body(body);
+    }
+
+    @GetMapping("/{id}/thumbnail")
+    @Operation(summary = "Get a document thumbnail")
+    public ResponseEntity<Resource> getThumbnail(
+            @AuthenticationPrincipal User user,
+            @PathVariable UUID id
+    ) throws IOException {
+        return previewResponse(documentService.openDocumentPreview(id, DocumentPreviewService.Kind.THUMBNAIL, user));
+    }
+
+    @GetMapping("/{id}/preview")
+    @Operation(summary = "Get a first-page preview of a document")
+    public ResponseEntity<Resource> getPreview(
+            @AuthenticationPrincipal User user,
+            @PathVariable UUID id
+    ) throws IOException {
+        return previewResponse(documentService.openDocumentPreview(id, DocumentPreviewService.Kind.PREVIEW, user));
+    }
+
     @PutMapping("/{id}/ocr-result")
     @Operation(summary = "Update document OCR result")
     public ResponseEntity<DocumentDTO> updateOcrResult(
@@ -76,4 +204,12 @@ public class DocumentController {
         documentService.deleteDocument(id, user);
         return ResponseEntity.noContent().build();
     }
+
+    private ResponseEntity<Resource> previewResponse(InputStream content) {
+        // Derived assets never change for a given document, so clients may keep them
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(7)).cachePrivate())
+                .body(new InputStreamResource(content));
+    }
 }
@@ -0,0 +1,33 @@
+package com.voyageai.controller;
+
+import com.voyageai.entity.User;
+import com.voyageai.service.TripEventStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@Tag(name = "Events", description = "Real-time trip event stream")
+@SecurityRequirement(name = "bearerAuth")
+public class EventController {
+
+    private final TripEventStreamService tripEventStreamService;
+
+    @GetMapping(value = "/itinerary/{itineraryId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to changes on an itinerary (Server-Sent Events)")
+    public SseEmitter subscribe(
+            @AuthenticationPrincipal User user,
+            @PathVariable UUID itineraryId
+    ) {
+        return tripEventStreamService.subscribe(itineraryId, user);
+    }
+}
@@ -2,16 +2,21 @@ package com.voyageai.controller;
 
 import com.voyageai.dto.expense.*;
 import com.voyageai.entity.User;
+import com.voyageai.service.ExpenseImportService;
 import com.voyageai.service.ExpenseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +28,7 @@ import java.util.UUID;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
 
     @GetMapping("/itinerary/{itineraryId}")
     @Operation(summary = "Get all expenses for an itinerary")
@@ -52,6 +58,20 @@ public class ExpenseController {
         return ResponseEntity.ok(expenseService.createExpense(itineraryId, request, user));
     }
 
+    @PostMapping(value = "/itinerary/{itineraryId}/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Bulk import expenses from CSV or NDJSON")
+    public ResponseEntity<ExpenseImportResultDTO> importExpenses(
+            @AuthenticationPrincipal User user,
+            @PathVariable UUID itineraryId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) throws IOException {
+        String format = "csv".equals(contentType.getSubtype())
+                ? ExpenseImportService.FORMAT_CSV
+                : ExpenseImportService.FORMAT_NDJSON;
+        return ResponseEntity.ok(expenseImportService.importExpenses(itineraryId, format, body, user));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an expense")
     public ResponseEntity<ExpenseDTO> updateExpense(
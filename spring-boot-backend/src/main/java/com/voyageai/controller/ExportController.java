@@ -0,0 +1,58 @@
+package com.voyageai.controller;
+
+import com.voyageai.entity.User;
+import com.voyageai.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/exports")
+@RequiredArgsConstructor
+@Tag(name = "Exports", description = "Streaming expense and settlement exports")
+@SecurityRequirement(name = "bearerAuth")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @GetMapping("/itinerary/{itineraryId}")
+    @Operation(summary = "Export expenses, splits and settlements for an itinerary")
+    public ResponseEntity<StreamingResponseBody> exportItinerary(
+            @AuthenticationPrincipal User user,
+            @PathVariable UUID itineraryId,
+            @RequestParam(defaultValue = ExportService.FORMAT_CSV) String format
+    ) {
+        return attachment("itinerary-" + itineraryId, format,
+                exportService.exportItinerary(itineraryId, format, user));
+    }
+
+    @GetMapping("/me")
+    @Operation(summary = "Export expenses, splits and settlements for all of the current user's itineraries")
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = ExportService.FORMAT_CSV) String format
+    ) {
+        return attachment("expenses", format, exportService.exportAllForUser(format, user));
+    }
+
+    private ResponseEntity<StreamingResponseBody> attachment(String baseName, String format, StreamingResponseBody body) {
+        boolean csv = ExportService.FORMAT_CSV.equals(format);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(baseName + (csv ? ".csv" : ".json"))
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,44 @@
+package com.voyageai.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationStatusDTO {
+    private UUID runId;
+    private String state;
+    private boolean repair;
+    private OffsetDateTime startedAt;
+    private OffsetDateTime finishedAt;
+    private long itinerariesScanned;
+    private long participantsChecked;
+    private long mismatches;
+    private long repaired;
+    private long conflicts;
+    private long failures;
+    private double itinerariesPerSecond;
+    private List<BalanceMismatchDTO> sampleMismatches;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BalanceMismatchDTO {
+        private UUID itineraryId;
+        private UUID participantId;
+        private BigDecimal storedPaid;
+        private BigDecimal expectedPaid;
+        private BigDecimal storedOwed;
+        private BigDecimal expectedOwed;
+    }
+}
@@ -0,0 +1,32 @@
+package com.voyageai.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageReconciliationStatusDTO {
+    private UUID runId;
+    private String state;
+    private boolean dryRun;
+    private OffsetDateTime startedAt;
+    private OffsetDateTime finishedAt;
+    private long objectsScanned;
+    private long skippedRecent;
+    private long skippedUnmanaged;
+    private long orphansFound;
+    private long orphanBytes;
+    private long orphansDeleted;
+    private long deleteFailures;
+    private long failures;
+    private double objectsPerSecond;
+    private List<String> sampleOrphanKeys;
+}
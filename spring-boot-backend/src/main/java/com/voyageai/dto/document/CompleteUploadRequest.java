@@ -0,0 +1,27 @@
+package com.voyageai.dto.document;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompleteUploadRequest {
+
+    @NotBlank(message = "Key is required")
+    private String key;
+
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    @NotBlank(message = "Document type is required")
+    private String documentType;
+
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "SHA-256 must be 64 hex characters")
+    private String sha256;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Map;
@@ -22,6 +23,10 @@ public class DocumentDTO {
     private String fileName;
     private String fileType;
     private String fileUrl;
+    private Instant fileUrlExpiresAt;
+    private String previewStatus;
+    private String thumbnailUrl;
+    private String previewUrl;
     private int fileSize;
     private String documentType;
     private String providerName;
@@ -0,0 +1,17 @@
+package com.voyageai.dto.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSearchHitDTO {
+    private DocumentDTO document;
+    private double rank;
+    // Matching fragment of the extracted text with terms wrapped in <b></b>
+    private String headline;
+}
@@ -0,0 +1,19 @@
+package com.voyageai.dto.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSearchResultDTO {
+    private List<DocumentSearchHitDTO> results;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,25 @@
+package com.voyageai.dto.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUploadDTO {
+    // False when identical content is already stored for this trip; skip the PUT and call complete-upload directly
+    private boolean uploadRequired;
+    private String uploadUrl;
+    private String method;
+    private String key;
+    // Headers that were signed and must be sent unchanged with the PUT
+    private Map<String, List<String>> headers;
+    private Instant expiresAt;
+}
@@ -0,0 +1,20 @@
+package com.voyageai.dto.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TripEventDTO {
+    private UUID itineraryId;
+    private TripEventType type;
+    private UUID entityId;
+    private OffsetDateTime occurredAt;
+}
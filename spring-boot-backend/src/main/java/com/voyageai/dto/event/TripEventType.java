@@ -0,0 +1,19 @@
+package com.voyageai.dto.event;
+
+public enum TripEventType {
+    ITINERARY_UPDATED,
+    DAY_REGENERATED,
+    EXPENSE_CREATED,
+    EXPENSE_UPDATED,
+    EXPENSE_DELETED,
+    EXPENSES_IMPORTED,
+    SETTLEMENT_CREATED,
+    SETTLEMENT_DELETED,
+    PARTICIPANT_ADDED,
+    PARTICIPANT_UPDATED,
+    PARTICIPANT_REMOVED,
+    DOCUMENT_UPLOADED,
+    DOCUMENT_DELETED,
+    OCR_COMPLETED,
+    DOCUMENT_PREVIEW_READY
+}
@@ -0,0 +1,15 @@
+package com.voyageai.dto.expense;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseImportErrorDTO {
+    private int lineNumber;
+    private String message;
+}
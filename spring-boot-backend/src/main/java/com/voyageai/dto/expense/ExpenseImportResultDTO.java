@@ -0,0 +1,21 @@
+package com.voyageai.dto.expense;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseImportResultDTO {
+    private UUID itineraryId;
+    private int totalRows;
+    private int importedCount;
+    private int failedCount;
+    private List<ExpenseImportErrorDTO> errors;
+}
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Data
@@ -21,4 +22,7 @@ public class ExpenseSummaryDTO {
     private int expenseCount;
     private Map<String, BigDecimal> expensesByCategory;
     private List<ParticipantBalanceDTO> participantBalances;
+    private List<SuggestedSettlementDTO> settlementPlan;
+    // Currencies without FX rates; rows in them are left out of the totals above
+    private Set<String> excludedCurrencies;
 }
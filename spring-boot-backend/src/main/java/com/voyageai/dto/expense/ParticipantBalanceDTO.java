@@ -18,4 +18,5 @@ public class ParticipantBalanceDTO {
     private BigDecimal totalPaid;
     private BigDecimal totalOwed;
     private BigDecimal balance;
+    private String currency;
 }
@@ -0,0 +1,22 @@
+package com.voyageai.dto.expense;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestedSettlementDTO {
+    private UUID fromParticipantId;
+    private String fromParticipantName;
+    private UUID toParticipantId;
+    private String toParticipantName;
+    private BigDecimal amount;
+    private String currency;
+}
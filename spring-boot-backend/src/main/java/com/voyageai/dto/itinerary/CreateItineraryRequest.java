@@ -31,4 +31,5 @@ public class CreateItineraryRequest {
     
     private String travelType;
     private String imageUrl;
+    private String baseCurrency;
 }
@@ -24,6 +24,7 @@ public class ItineraryDTO {
     private String status;
     private String travelType;
     private String imageUrl;
+    private String baseCurrency;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
     private List<ItineraryDayDTO> days;
@@ -30,6 +30,7 @@ public class SaveGeneratedItineraryRequest {
     
     private String travelType;
     private String imageUrl;
+    private String baseCurrency;
     
     @NotNull(message = "Days are required")
     private List<GeneratedItineraryDTO.GeneratedDayDTO> days;
@@ -20,4 +20,5 @@ public class UpdateItineraryRequest {
     private String status;
     private String travelType;
     private String imageUrl;
+    private String baseCurrency;
 }
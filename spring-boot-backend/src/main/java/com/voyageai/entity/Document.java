@@ -46,6 +46,14 @@ public class Document {
     @Column(name = "file_url", nullable = false)
     private String fileUrl;
 
+    // SHA-256 of the content; null for documents uploaded before deduplication
+    @Column(name = "content_hash")
+    private String contentHash;
+
+    // Key a direct upload was completed under; differs from file_url when it was deduplicated
+    @Column(name = "upload_key")
+    private String uploadKey;
+
     @Column(name = "document_type", nullable = false)
     private String documentType;
 
@@ -63,6 +71,10 @@ public class Document {
 
     private String currency;
 
+    // Written only by DocumentPreviewService, so entity saves never overwrite it
+    @Column(name = "preview_status", insertable = false, updatable = false)
+    private String previewStatus;
+
     @Column(name = "ocr_status")
     @Builder.Default
     private String ocrStatus = "pending";
@@ -50,6 +50,10 @@ public class Itinerary {
     @Column(name = "image_url")
     private String imageUrl;
 
+    @Column(name = "base_currency", nullable = false)
+    @Builder.Default
+    private String baseCurrency = "USD";
+
     @OneToMany(mappedBy = "itinerary", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<ItineraryDay> days = new ArrayList<>();
@@ -3,6 +3,8 @@ package com.voyageai.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -24,8 +26,10 @@ public class UserRole {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // Bound as the Postgres app_role enum rather than varchar, which it would not accept
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.NAMED_ENUM)
+    @Column(nullable = false, columnDefinition = "app_role")
     private AppRole role;
 
     @CreationTimestamp
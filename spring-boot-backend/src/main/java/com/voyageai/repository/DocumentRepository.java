@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -15,6 +16,14 @@ public interface DocumentRepository extends JpaRepository<Document, UUID> {
     List<Document> findByItineraryIdAndDocumentType(UUID itineraryId, String documentType);
     
     List<Document> findByUserId(UUID userId);
+
+    boolean existsByFileUrl(String fileUrl);
+
+    boolean existsByUploadKey(String uploadKey);
+
+    boolean existsByItineraryIdAndContentHash(UUID itineraryId, String contentHash);
+
+    Optional<Document> findFirstByContentHashAndOcrStatusOrderByUpdatedAtDesc(String contentHash, String ocrStatus);
     
     void deleteByItineraryId(UUID itineraryId);
 }
@@ -20,5 +20,8 @@ public interface ExpenseRepository extends JpaRepository<Expense, UUID> {
     @Query("SELECT e.category, SUM(e.amount) FROM Expense e WHERE e.itinerary.id = :itineraryId GROUP BY e.category")
     List<Object[]> getExpensesByCategory(UUID itineraryId);
     
+    @Query("SELECT e.paidByParticipant.id, e.amount, e.currency, e.date, e.category FROM Expense e WHERE e.itinerary.id = :itineraryId")
+    List<Object[]> findLedgerRowsByItineraryId(UUID itineraryId);
+    
     void deleteByItineraryId(UUID itineraryId);
 }
@@ -2,6 +2,7 @@ package com.voyageai.repository;
 
 import com.voyageai.entity.ExpenseSplit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +16,7 @@ public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, UUID
     List<ExpenseSplit> findByParticipantId(UUID participantId);
     
     void deleteByExpenseId(UUID expenseId);
+    
+    @Query("SELECT s.participant.id, s.amount, e.currency, e.date FROM ExpenseSplit s JOIN s.expense e WHERE e.itinerary.id = :itineraryId")
+    List<Object[]> findLedgerRowsByItineraryId(UUID itineraryId);
 }
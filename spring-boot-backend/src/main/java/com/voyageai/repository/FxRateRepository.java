@@ -0,0 +1,23 @@
+package com.voyageai.repository;
+
+import com.voyageai.entity.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, UUID> {
+    
+    List<FxRate> findAllByOrderByCurrencyAscEffectiveDateAsc();
+    
+    @Modifying
+    @Query(value = "INSERT INTO fx_rates (currency, effective_date, rate_per_usd) VALUES (:currency, :effectiveDate, :ratePerUsd) " +
+            "ON CONFLICT (currency, effective_date) DO UPDATE SET rate_per_usd = EXCLUDED.rate_per_usd", nativeQuery = true)
+    void upsert(String currency, LocalDate effectiveDate, BigDecimal ratePerUsd);
+}
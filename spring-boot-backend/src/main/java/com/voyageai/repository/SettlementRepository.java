@@ -2,6 +2,7 @@ package com.voyageai.repository;
 
 import com.voyageai.entity.Settlement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,5 +15,8 @@ public interface SettlementRepository extends JpaRepository<Settlement, UUID> {
     
     List<Settlement> findByFromParticipantIdOrToParticipantId(UUID fromParticipantId, UUID toParticipantId);
     
+    @Query("SELECT s.fromParticipant.id, s.toParticipant.id, s.amount, s.currency, s.settledAt FROM Settlement s WHERE s.itinerary.id = :itineraryId")
+    List<Object[]> findLedgerRowsByItineraryId(UUID itineraryId);
+    
     void deleteByItineraryId(UUID itineraryId);
 }
@@ -2,8 +2,11 @@ package com.voyageai.repository;
 
 import com.voyageai.entity.TripParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,4 +21,8 @@ public interface TripParticipantRepository extends JpaRepository<TripParticipant
     boolean existsByItineraryIdAndEmail(UUID itineraryId, String email);
     
     void deleteByItineraryId(UUID itineraryId);
+    
+    @Modifying
+    @Query("UPDATE TripParticipant p SET p.totalPaid = p.totalPaid + :paid, p.totalOwed = p.totalOwed + :owed WHERE p.id = :participantId")
+    int addToTotals(UUID participantId, BigDecimal paid, BigDecimal owed);
 }
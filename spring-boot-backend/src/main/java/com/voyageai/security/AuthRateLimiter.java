@@ -0,0 +1,120 @@
+package com.voyageai.security;
+
+import com.voyageai.exception.TooManyRequestsException;
+import com.voyageai.service.BoundedCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Token buckets for the unauthenticated auth endpoints, one per client address
+ * and one per account email. Buckets refill continuously and are dropped once
+ * they have been full and idle, so memory tracks the set of active clients.
+ * Client and account buckets are held in separate bounded caches, each evicting
+ * its least recently used bucket when full, so a flood of made-up emails cannot
+ * push out the client bucket that is throttling it.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthRateLimiter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.auth-rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.auth-rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${security.auth-rate-limit.ip.refill-per-minute:10}")
+    private double ipRefillPerMinute;
+
+    @Value("${security.auth-rate-limit.account.capacity:5}")
+    private int accountCapacity;
+
+    @Value("${security.auth-rate-limit.account.refill-per-minute:2}")
+    private double accountRefillPerMinute;
+
+    @Value("${security.auth-rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    private BoundedCache<String, TokenBucket> clientBuckets;
+    private BoundedCache<String, TokenBucket> accountBuckets;
+
+    @PostConstruct
+    void init() {
+        clientBuckets = new BoundedCache<>(maxBuckets / 2);
+        accountBuckets = new BoundedCache<>(maxBuckets / 2);
+    }
+
+    public void checkClient(String clientAddress) {
+        consume(clientBuckets, clientAddress, ipCapacity, ipRefillPerMinute, "ip");
+    }
+
+    public void checkAccount(String email) {
+        consume(accountBuckets, email.trim().toLowerCase(Locale.ROOT), accountCapacity, accountRefillPerMinute, "account");
+    }
+
+    private void consume(BoundedCache<String, TokenBucket> buckets, String key, int capacity,
+                         double refillPerMinute, String scope) {
+        if (!enabled) {
+            return;
+        }
+        TokenBucket bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerMinute / 60_000d));
+        long waitMs = bucket.tryConsume(System.currentTimeMillis());
+        if (waitMs > 0) {
+            meterRegistry.counter("voyage.auth.rate_limited", "scope", scope).increment();
+            throw new TooManyRequestsException("Too many authentication attempts, please retry later",
+                    Math.max(1, (waitMs + 999) / 1000));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.auth-rate-limit.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long now = System.currentTimeMillis();
+        clientBuckets.removeIf((key, bucket) -> bucket.isFull(now));
+        accountBuckets.removeIf((key, bucket) -> bucket.isFull(now));
+    }
+
+    private static final class TokenBucket {
+
+        private final int capacity;
+        private final double refillPerMs;
+        private double tokens;
+        private long updatedAt;
+
+        TokenBucket(int capacity, double refillPerMs) {
+            this.capacity = capacity;
+            this.refillPerMs = refillPerMs;
+            this.tokens = capacity;
+            this.updatedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Takes one token and returns 0, or returns how long until a token is available.
+         */
+        synchronized long tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerMs);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - updatedAt) * refillPerMs);
+            updatedAt = now;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.voyageai.security;
+
+import com.voyageai.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt on a small dedicated pool instead of the request threads. The pool and
+ * its queue are bounded: once both are full, or a caller has waited too long,
+ * the request is shed with a 503 so a login storm cannot starve the rest of the
+ * API of CPU or Tomcat threads. Hashes whose cost differs from the configured
+ * strength report that they need upgrading, which lets the authentication
+ * provider rehash them on the next successful login.
+ */
+@Component
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abyx]?\\$(\\d{2})\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final int strength;
+
+    @Value("${security.password-hashing.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    public BoundedPasswordEncoder(MeterRegistry meterRegistry,
+                                  @Value("${security.password-hashing.strength:10}") int strength,
+                                  @Value("${security.password-hashing.threads:2}") int threads,
+                                  @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        this.meterRegistry = meterRegistry;
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("voyage.auth.hash.queued", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("voyage.auth.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        // Rehash on any cost change, including a lowered cost, not only when it grows
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private <T> T run(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("voyage.auth.hash.shed", "reason", "queue_full").increment();
+            throw new ServiceUnavailableException("Authentication is temporarily overloaded, please retry");
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            meterRegistry.counter("voyage.auth.hash.shed", "reason", "timeout").increment();
+            throw new ServiceUnavailableException("Authentication is temporarily overloaded, please retry");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Authentication interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.voyageai.security;
 
 import com.voyageai.entity.User;
 import com.voyageai.repository.UserRepository;
+import com.voyageai.service.RefreshTokenService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +18,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -24,6 +27,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     protected void doFilterInternal(
@@ -33,7 +38,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -43,12 +47,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
         
         try {
-            userEmail = jwtService.extractUsername(jwt);
-            
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                User user = userRepository.findByEmail(userEmail).orElse(null);
-                
-                if (user != null && jwtService.isTokenValid(jwt, user)) {
+            // Signature and expiry are checked once here; the lookup by subject then matches the user
+            Claims claims = jwtService.verifyAccessToken(jwt);
+            String userEmail = claims.getSubject();
+
+            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && !isRevoked(claims)) {
+                User user = loadUser(claims);
+
+                if (user != null && userEmail.equals(user.getEmail())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             user,
                             null,
@@ -64,4 +71,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+
+    private boolean isRevoked(Claims claims) {
+        String familyId = claims.get(JwtService.CLAIM_FAMILY, String.class);
+        return familyId != null && refreshTokenService.isRevoked(UUID.fromString(familyId));
+    }
+
+    private User loadUser(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        if (userId == null) {
+            // Tokens issued before the userId claim existed
+            return userRepository.findByEmail(claims.getSubject()).orElse(null);
+        }
+        return principalCache.get(UUID.fromString(userId)).orElse(null);
+    }
 }
@@ -1,22 +1,44 @@
 package com.voyageai.security;
 
 import com.voyageai.entity.User;
+import com.voyageai.service.BoundedCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
-import java.util.function.Function;
-
+import java.util.UUID;
+
+/**
+ * Issues and verifies JWTs. The signing key and parser are built once at startup,
+ * and every verification parses the token a single time. Verified access-token
+ * claims are cached briefly by token digest so repeated calls with the same bearer
+ * token skip the HMAC check; entries never outlive the token's own expiration.
+ * Refresh tokens carry a type claim and a token id so they can be rotated and
+ * are never accepted as bearer tokens. Each verification is emitted as a
+ * {@link JwtVerificationEvent} for Flight Recorder.
+ */
 @Service
 public class JwtService {
 
+    public static final String CLAIM_FAMILY = "fid";
+    public static final String CLAIM_TYPE = "typ";
+    public static final String TYPE_REFRESH = "refresh";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -26,21 +48,42 @@ public class JwtService {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    @Value("${jwt.claims-cache.ttl-ms:60000}")
+    private long claimsCacheTtlMs;
+
+    @Value("${jwt.claims-cache.max-entries:50000}")
+    private int claimsCacheMaxEntries;
+
+    private SecretKey signInKey;
+    private JwtParser parser;
+
+    private BoundedCache<String, Claims> claimsCache;
+
+    @PostConstruct
+    void init() {
+        claimsCache = new BoundedCache<>(claimsCacheMaxEntries);
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public String generateAccessToken(User user, UUID familyId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_FAMILY, familyId.toString());
+        return generateToken(claims, user, jwtExpiration);
     }
 
-    public String generateToken(User user) {
-        return generateToken(new HashMap<>(), user, jwtExpiration);
+    public String generateRefreshToken(User user, UUID familyId, UUID tokenId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_FAMILY, familyId.toString());
+        claims.put(CLAIM_TYPE, TYPE_REFRESH);
+        claims.put(Claims.ID, tokenId.toString());
+        return generateToken(claims, user, refreshExpiration);
     }
 
-    public String generateRefreshToken(User user) {
-        return generateToken(new HashMap<>(), user, refreshExpiration);
+    public long getRefreshExpiration() {
+        return refreshExpiration;
     }
 
     public String generateToken(Map<String, Object> extraClaims, User user, long expiration) {
@@ -50,33 +93,89 @@ public class JwtService {
                 .claim("userId", user.getId().toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, User user) {
-        final String username = extractUsername(token);
-        return (username.equals(user.getEmail())) && !isTokenExpired(token);
+    /**
+     * Verifies a bearer token and returns its claims, serving repeat requests for the
+     * same token from the claims cache. Throws a JwtException when the token is
+     * malformed, tampered with or expired.
+     */
+    public Claims verifyAccessToken(String token) {
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.tokenType = "access";
+        event.begin();
+        try {
+            Claims claims = verifyAccessToken(token, event);
+            event.outcome = "valid";
+            return claims;
+        } catch (RuntimeException e) {
+            event.outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private Claims verifyAccessToken(String token, JwtVerificationEvent event) {
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+
+        Claims cached = claimsCache.get(digest, now);
+        if (cached != null) {
+            event.cached = true;
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        if (TYPE_REFRESH.equals(claims.get(CLAIM_TYPE, String.class))) {
+            throw new UnsupportedJwtException("Refresh tokens cannot be used as bearer tokens");
+        }
+        long validUntil = Math.min(now + claimsCacheTtlMs, claims.getExpiration().getTime());
+        // Only verified tokens are cached; once full the least recently used token is evicted
+        claimsCache.put(digest, claims, validUntil);
+        return claims;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Verifies a token presented for refresh, bypassing the claims cache since each
+     * refresh token is meant to be used once.
+     */
+    public Claims parseRefreshToken(String token) {
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.tokenType = TYPE_REFRESH;
+        event.begin();
+        try {
+            Claims claims = extractAllClaims(token);
+            event.outcome = "valid";
+            return claims;
+        } catch (RuntimeException e) {
+            event.outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    @Scheduled(fixedDelayString = "${jwt.claims-cache.purge-interval-ms:60000}")
+    public void purgeExpiredClaims() {
+        claimsCache.purgeExpired(System.currentTimeMillis());
     }
 
+    /**
+     * Parses and verifies the token once; expired tokens are rejected by the parser.
+     */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,28 @@
+package com.voyageai.security;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one token verification. Emitted on every
+ * authenticated request, so it carries no stack trace.
+ */
+@Name("voyage.JwtVerification")
+@Label("JWT Verification")
+@Category({"Voyage", "Security"})
+@Description("Access or refresh token verified by JwtService")
+@StackTrace(false)
+class JwtVerificationEvent extends jdk.jfr.Event {
+
+    @Label("Token Type")
+    String tokenType;
+
+    @Label("Served From Cache")
+    boolean cached;
+
+    @Label("Outcome")
+    String outcome;
+}
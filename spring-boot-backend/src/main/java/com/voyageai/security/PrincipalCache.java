@@ -0,0 +1,125 @@
+package com.voyageai.security;
+
+import com.voyageai.entity.User;
+import com.voyageai.repository.UserRepository;
+import com.voyageai.service.BoundedCache;
+import com.voyageai.service.NotificationHandler;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Caches authenticated users by id so the JWT filter does not hit the database on
+ * every request. Entries expire after a short TTL and are evicted explicitly when
+ * the account changes; the eviction is also sent over Postgres NOTIFY so the other
+ * nodes drop their copy. Once max-entries users are cached the least recently
+ * used is evicted. Callers always receive their own copy of the user, so a
+ * request mutating its principal never leaks into the cached snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrincipalCache implements NotificationHandler {
+
+    public static final String CHANNEL = "principal_invalidations";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${security.principal-cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${security.principal-cache.max-entries:20000}")
+    private int maxEntries;
+
+    @Value("${events.enabled:true}")
+    private boolean notifyEnabled;
+
+    private BoundedCache<UUID, User> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedCache<>(maxEntries);
+    }
+
+    public Optional<User> get(UUID userId) {
+        User cached = cache.get(userId, System.currentTimeMillis());
+        if (cached != null) {
+            return Optional.of(copy(cached));
+        }
+
+        Optional<User> user = userRepository.findById(userId);
+        user.ifPresent(this::put);
+        return user.map(PrincipalCache::copy);
+    }
+
+    public void put(User user) {
+        cache.put(user.getId(), copy(user), System.currentTimeMillis() + ttlMs);
+    }
+
+    /**
+     * Drops the user on this node and, once the surrounding transaction commits,
+     * on every other node. Evicting again after commit closes the window in which
+     * a concurrent request could re-cache the pre-commit row.
+     */
+    public void invalidate(UUID userId) {
+        evictLocal(userId);
+        if (notifyEnabled) {
+            // Issued on the transactional connection, so other nodes only hear it after commit
+            jdbcTemplate.queryForRowSet("SELECT pg_notify(?, ?)", CHANNEL, userId.toString());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal(userId);
+                }
+            });
+        }
+    }
+
+    public void evictLocal(UUID userId) {
+        cache.remove(userId);
+    }
+
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public void handleNotification(String payload) {
+        try {
+            evictLocal(UUID.fromString(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed principal invalidation: {}", payload);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.principal-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        cache.purgeExpired(System.currentTimeMillis());
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .fullName(user.getFullName())
+                .avatarUrl(user.getAvatarUrl())
+                .emailVerified(user.isEmailVerified())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+}
@@ -6,6 +6,8 @@ import com.voyageai.dto.itinerary.GenerateItineraryRequest;
 import com.voyageai.dto.itinerary.GeneratedItineraryDTO;
 import com.voyageai.dto.itinerary.RegenerateDayRequest;
 import com.voyageai.dto.itinerary.RegeneratedDayDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,6 +15,7 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.util.*;
 
 @Service
@@ -20,6 +23,9 @@ import java.util.*;
 @Slf4j
 public class AIService {
 
+    private static final String OPERATION_GENERATE = "generate_itinerary";
+    private static final String OPERATION_REGENERATE_DAY = "regenerate_day";
+
     @Value("${ai.api-key}")
     private String apiKey;
 
@@ -31,44 +37,14 @@ public class AIService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
     public GeneratedItineraryDTO generateItinerary(GenerateItineraryRequest request) {
         log.info("Generating itinerary for destinations: {}", request.getDestinations());
 
-        String systemPrompt = buildSystemPrompt();
-        String userPrompt = buildUserPrompt(request);
-
         try {
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", model);
-            requestBody.put("messages", List.of(
-                    Map.of("role", "system", "content", systemPrompt),
-                    Map.of("role", "user", "content", userPrompt)
-            ));
-            requestBody.put("temperature", 0.7);
-            requestBody.put("max_tokens", 4000);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    baseUrl + "/chat/completions",
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-            );
-
-            JsonNode responseJson = objectMapper.readTree(response.getBody());
-            String content = responseJson.path("choices").get(0).path("message").path("content").asText();
-
-            // Clean and parse JSON
-            content = content.replaceAll("```json\\s*", "").replaceAll("```\\s*", "").trim();
-            
-            return objectMapper.readValue(content, GeneratedItineraryDTO.class);
-
+            return complete(OPERATION_GENERATE, buildSystemPrompt(), buildUserPrompt(request), 4000,
+                    GeneratedItineraryDTO.class);
         } catch (Exception e) {
             log.error("Failed to generate itinerary: {}", e.getMessage());
             throw new RuntimeException("Failed to generate itinerary", e);
@@ -79,24 +55,46 @@ public class AIService {
         log.info("Regenerating day {} for location: {}", request.getDayNumber(), request.getLocation());
 
         String systemPrompt = "You are a travel planning assistant. Regenerate activities for a specific day based on user feedback.";
-        String userPrompt = buildRegenerateDayPrompt(request);
 
         try {
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", model);
-            requestBody.put("messages", List.of(
-                    Map.of("role", "system", "content", systemPrompt),
-                    Map.of("role", "user", "content", userPrompt)
-            ));
-            requestBody.put("temperature", 0.7);
-            requestBody.put("max_tokens", 2000);
+            return complete(OPERATION_REGENERATE_DAY, systemPrompt, buildRegenerateDayPrompt(request), 2000,
+                    RegeneratedDayDTO.class);
+        } catch (Exception e) {
+            log.error("Failed to regenerate day: {}", e.getMessage());
+            throw new RuntimeException("Failed to regenerate day", e);
+        }
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
+    /**
+     * Calls the chat completions API and binds the answer, recording latency by
+     * operation, model and outcome, token usage, and answers that could not be parsed.
+     * The call is also emitted as a {@link AiRequestEvent} for Flight Recorder.
+     */
+    private <T> T complete(String operation, String systemPrompt, String userPrompt, int maxTokens,
+                           Class<T> type) throws IOException {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+        requestBody.put("messages", List.of(
+                Map.of("role", "system", "content", systemPrompt),
+                Map.of("role", "user", "content", userPrompt)
+        ));
+        requestBody.put("temperature", 0.7);
+        requestBody.put("max_tokens", maxTokens);
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(apiKey);
 
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+
+        AiRequestEvent event = new AiRequestEvent();
+        event.operation = operation;
+        event.model = model;
+        event.maxTokens = maxTokens;
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
             ResponseEntity<String> response = restTemplate.exchange(
                     baseUrl + "/chat/completions",
                     HttpMethod.POST,
@@ -105,16 +103,51 @@ public class AIService {
             );
 
             JsonNode responseJson = objectMapper.readTree(response.getBody());
-            String content = responseJson.path("choices").get(0).path("message").path("content").asText();
+            JsonNode usage = responseJson.path("usage");
+            recordUsage(operation, usage);
+            event.promptTokens = usage.path("prompt_tokens").asLong();
+            event.completionTokens = usage.path("completion_tokens").asLong();
+            try {
+                T result = bindCompletion(responseJson, type);
+                outcome = "success";
+                return result;
+            } catch (IOException e) {
+                outcome = "parse_error";
+                meterRegistry.counter("voyage.ai.parse.failures", "operation", operation, "model", model).increment();
+                throw e;
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("voyage.ai.request", "operation", operation, "model", model, "outcome", outcome));
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
 
-            content = content.replaceAll("```json\\s*", "").replaceAll("```\\s*", "").trim();
+    private void recordUsage(String operation, JsonNode usage) {
+        if (usage.isMissingNode()) {
+            return;
+        }
+        meterRegistry.summary("voyage.ai.tokens", "operation", operation, "model", model, "type", "prompt")
+                .record(usage.path("prompt_tokens").asLong());
+        meterRegistry.summary("voyage.ai.tokens", "operation", operation, "model", model, "type", "completion")
+                .record(usage.path("completion_tokens").asLong());
+    }
 
-            return objectMapper.readValue(content, RegeneratedDayDTO.class);
+    /**
+     * Extracts the first choice's message from a chat completion response and binds
+     * it, stripping any Markdown code fences the model wrapped around the JSON.
+     */
+    <T> T parseCompletion(String responseBody, Class<T> type) throws IOException {
+        return bindCompletion(objectMapper.readTree(responseBody), type);
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to regenerate day: {}", e.getMessage());
-            throw new RuntimeException("Failed to regenerate day", e);
-        }
+    private <T> T bindCompletion(JsonNode responseJson, Class<T> type) throws IOException {
+        String content = responseJson.path("choices").get(0).path("message").path("content").asText();
+
+        // Clean and parse JSON
+        content = content.replaceAll("```json\\s*", "").replaceAll("```\\s*", "").trim();
+
+        return objectMapper.readValue(content, type);
     }
 
     private String buildSystemPrompt() {
@@ -0,0 +1,37 @@
+package com.voyageai.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning one chat completion call, from sending the
+ * request to binding the answer.
+ */
+@Name("voyage.AiRequest")
+@Label("AI Request")
+@Category({"Voyage", "AI"})
+@Description("Chat completion call made by AIService")
+@StackTrace(false)
+class AiRequestEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Model")
+    String model;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Max Tokens")
+    int maxTokens;
+
+    @Label("Prompt Tokens")
+    long promptTokens;
+
+    @Label("Completion Tokens")
+    long completionTokens;
+}
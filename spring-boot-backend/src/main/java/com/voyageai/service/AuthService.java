@@ -4,14 +4,14 @@ import com.voyageai.dto.auth.*;
 import com.voyageai.entity.User;
 import com.voyageai.entity.UserRole;
 import com.voyageai.exception.BadRequestException;
-import com.voyageai.exception.ResourceNotFoundException;
 import com.voyageai.repository.UserRepository;
 import com.voyageai.repository.UserRoleRepository;
-import com.voyageai.security.JwtService;
+import com.voyageai.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,8 +24,9 @@ public class AuthService {
     private final UserRepository userRepository;
     private final UserRoleRepository userRoleRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
     private final AuthenticationManager authenticationManager;
+    private final PrincipalCache principalCache;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -49,16 +50,16 @@ public class AuthService {
                 .user(user)
                 .role(UserRole.AppRole.USER)
                 .build();
-        userRoleRepository.save(userRole);
+        // Flush before issuing: the refresh token family is written with JDBC and references the user row
+        userRoleRepository.saveAndFlush(userRole);
 
-        String accessToken = jwtService.generateToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
+        RefreshTokenService.TokenPair tokens = refreshTokenService.issue(user);
 
         log.info("User registered successfully: {}", user.getId());
 
         return AuthResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
+                .accessToken(tokens.accessToken())
+                .refreshToken(tokens.refreshToken())
                 .user(mapToUserDTO(user))
                 .build();
     }
@@ -66,45 +67,43 @@ public class AuthService {
     public AuthResponse login(LoginRequest request) {
         log.info("User login attempt: {}", request.getEmail());
 
-        authenticationManager.authenticate(
+        // The authentication provider already loaded the user through the UserDetailsService
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
+        User user = (User) authentication.getPrincipal();
+        principalCache.put(user);
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        String accessToken = jwtService.generateToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
+        RefreshTokenService.TokenPair tokens = refreshTokenService.issue(user);
 
         log.info("User logged in successfully: {}", user.getId());
 
         return AuthResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
+                .accessToken(tokens.accessToken())
+                .refreshToken(tokens.refreshToken())
                 .user(mapToUserDTO(user))
                 .build();
     }
 
     public AuthResponse refreshToken(RefreshTokenRequest request) {
-        String userEmail = jwtService.extractUsername(request.getRefreshToken());
-        
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        if (!jwtService.isTokenValid(request.getRefreshToken(), user)) {
-            throw new BadRequestException("Invalid refresh token");
-        }
-
-        String accessToken = jwtService.generateToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
+        RefreshTokenService.RotatedTokens rotated = refreshTokenService.rotate(request.getRefreshToken());
 
         return AuthResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .user(mapToUserDTO(user))
+                .accessToken(rotated.tokens().accessToken())
+                .refreshToken(rotated.tokens().refreshToken())
+                .user(mapToUserDTO(rotated.user()))
                 .build();
     }
 
+    public void logout(RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
+    }
+
+    public void logoutEverywhere(User user) {
+        int revoked = refreshTokenService.revokeAllForUser(user.getId());
+        log.info("Revoked {} sessions for user {}", revoked, user.getId());
+    }
+
     public UserDTO getCurrentUser(User user) {
         return mapToUserDTO(user);
     }
@@ -119,6 +118,7 @@ public class AuthService {
         }
         
         user = userRepository.save(user);
+        principalCache.invalidate(user.getId());
         return mapToUserDTO(user);
     }
 
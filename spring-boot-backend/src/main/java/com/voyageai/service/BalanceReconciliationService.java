@@ -0,0 +1,250 @@
+package com.voyageai.service;
+
+import com.voyageai.dto.admin.ReconciliationStatusDTO;
+import com.voyageai.dto.admin.ReconciliationStatusDTO.BalanceMismatchDTO;
+import com.voyageai.entity.User;
+import com.voyageai.repository.UserRoleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recomputes participant totals from expenses, splits and settlements and compares
+ * them with the incrementally maintained total_paid / total_owed columns.
+ * Itinerary ids are paged by key, each page is checked by a bounded worker pool,
+ * and every itinerary is verified (and optionally repaired) in its own short
+ * transaction. Repairs are conditional on the stored values not having changed
+ * since they were read, so concurrent expense writes are never overwritten.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceReconciliationService {
+
+    private static final long ADVISORY_LOCK_KEY = 0x566F7961676541L;
+    private static final int MAX_SAMPLE_MISMATCHES = 100;
+
+    private static final String PAGE_SQL = "SELECT id FROM itineraries WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String EXPECTED_TOTALS_SQL = """
+            SELECT p.id, p.total_paid, p.total_owed,
+                   COALESCE((SELECT SUM(e.amount) FROM expenses e WHERE e.paid_by_participant_id = p.id), 0)
+                 + COALESCE((SELECT SUM(s.amount) FROM settlements s WHERE s.from_participant_id = p.id), 0) AS expected_paid,
+                   COALESCE((SELECT SUM(es.amount) FROM expense_splits es WHERE es.participant_id = p.id), 0)
+                 - COALESCE((SELECT SUM(s.amount) FROM settlements s WHERE s.to_participant_id = p.id), 0) AS expected_owed
+            FROM trip_participants p
+            WHERE p.itinerary_id = ?
+            """;
+
+    private static final String REPAIR_SQL = """
+            UPDATE trip_participants SET total_paid = ?, total_owed = ?
+            WHERE id = ? AND total_paid IS NOT DISTINCT FROM ? AND total_owed IS NOT DISTINCT FROM ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final UserRoleRepository userRoleRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${reconciliation.batch-size:200}")
+    private int batchSize;
+
+    @Value("${reconciliation.workers:4}")
+    private int workers;
+
+    @Value("${reconciliation.batch-pause-ms:0}")
+    private long batchPauseMs;
+
+    @Value("${reconciliation.scheduled-repair:false}")
+    private boolean scheduledRepair;
+
+    private ReconciliationJob<RunState> job;
+
+    private Counter itinerariesCounter;
+    private Counter mismatchCounter;
+    private Counter repairCounter;
+    private Timer runTimer;
+
+    @PostConstruct
+    void init() {
+        job = new ReconciliationJob<>("balance reconciliation", ADVISORY_LOCK_KEY, jdbcTemplate, userRoleRepository);
+        itinerariesCounter = meterRegistry.counter("voyage.reconciliation.itineraries");
+        mismatchCounter = meterRegistry.counter("voyage.reconciliation.mismatches");
+        repairCounter = meterRegistry.counter("voyage.reconciliation.repairs");
+        runTimer = meterRegistry.timer("voyage.reconciliation.run");
+        meterRegistry.gauge("voyage.reconciliation.running", this, s -> s.job.isRunning() ? 1 : 0);
+        meterRegistry.gauge("voyage.reconciliation.throughput", this, s -> s.job.current() != null ? s.job.current().throughput() : 0);
+    }
+
+    @Scheduled(cron = "${reconciliation.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        job.runScheduled(() -> new RunState(scheduledRepair), this::run);
+    }
+
+    public ReconciliationStatusDTO start(boolean repair, User user) {
+        return job.start(user, () -> new RunState(repair), this::run).toDTO();
+    }
+
+    public ReconciliationStatusDTO getStatus(User user) {
+        return job.status(user)
+                .map(RunState::toDTO)
+                .orElseGet(() -> ReconciliationStatusDTO.builder().state("idle").build());
+    }
+
+    private void run(RunState state) {
+        runTimer.record(() -> scan(state));
+    }
+
+    private void scan(RunState state) {
+        log.info("Balance reconciliation started: {} (repair={})", state.runId, state.repair);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            UUID lastId = new UUID(0L, 0L);
+            while (true) {
+                List<UUID> page = jdbcTemplate.queryForList(PAGE_SQL, UUID.class, lastId, batchSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                List<Callable<Void>> tasks = new ArrayList<>(page.size());
+                for (UUID itineraryId : page) {
+                    tasks.add(() -> {
+                        reconcileItinerary(itineraryId, state, transaction);
+                        return null;
+                    });
+                }
+                for (Future<Void> future : pool.invokeAll(tasks)) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        state.failures.incrementAndGet();
+                        log.warn("Reconciliation task failed: {}", e.getCause().getMessage());
+                    }
+                }
+
+                lastId = page.get(page.size() - 1);
+                if (batchPauseMs > 0) {
+                    Thread.sleep(batchPauseMs);
+                }
+            }
+            state.finish("completed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state.finish("interrupted");
+        } catch (RuntimeException e) {
+            log.error("Balance reconciliation failed", e);
+            state.finish("failed");
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Balance reconciliation {}: {} itineraries, {} mismatches, {} repaired, {} conflicts",
+                state.state, state.itineraries.get(), state.mismatches.get(), state.repaired.get(), state.conflicts.get());
+    }
+
+    private void reconcileItinerary(UUID itineraryId, RunState state, TransactionTemplate transaction) {
+        transaction.executeWithoutResult(status -> jdbcTemplate.query(EXPECTED_TOTALS_SQL, rs -> {
+            state.participants.incrementAndGet();
+            UUID participantId = rs.getObject("id", UUID.class);
+            BigDecimal storedPaid = rs.getBigDecimal("total_paid");
+            BigDecimal storedOwed = rs.getBigDecimal("total_owed");
+            BigDecimal expectedPaid = rs.getBigDecimal("expected_paid");
+            BigDecimal expectedOwed = rs.getBigDecimal("expected_owed");
+
+            if (sameAmount(storedPaid, expectedPaid) && sameAmount(storedOwed, expectedOwed)) {
+                return;
+            }
+
+            state.recordMismatch(BalanceMismatchDTO.builder()
+                    .itineraryId(itineraryId)
+                    .participantId(participantId)
+                    .storedPaid(storedPaid)
+                    .expectedPaid(expectedPaid)
+                    .storedOwed(storedOwed)
+                    .expectedOwed(expectedOwed)
+                    .build());
+            mismatchCounter.increment();
+            log.warn("Balance mismatch for participant {} in itinerary {}: paid {} vs {}, owed {} vs {}",
+                    participantId, itineraryId, storedPaid, expectedPaid, storedOwed, expectedOwed);
+
+            if (state.repair) {
+                int updated = jdbcTemplate.update(REPAIR_SQL, expectedPaid, expectedOwed, participantId, storedPaid, storedOwed);
+                if (updated == 1) {
+                    state.repaired.incrementAndGet();
+                    repairCounter.increment();
+                } else {
+                    state.conflicts.incrementAndGet();
+                }
+            }
+        }, itineraryId));
+        state.itineraries.incrementAndGet();
+        itinerariesCounter.increment();
+    }
+
+    private static boolean sameAmount(BigDecimal stored, BigDecimal expected) {
+        return (stored != null ? stored : BigDecimal.ZERO).compareTo(expected) == 0;
+    }
+
+    private static final class RunState extends ReconciliationRun {
+
+        private final boolean repair;
+        private final AtomicLong itineraries = new AtomicLong();
+        private final AtomicLong participants = new AtomicLong();
+        private final AtomicLong mismatches = new AtomicLong();
+        private final AtomicLong repaired = new AtomicLong();
+        private final AtomicLong conflicts = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final List<BalanceMismatchDTO> samples = Collections.synchronizedList(new ArrayList<>());
+
+        RunState(boolean repair) {
+            this.repair = repair;
+        }
+
+        void recordMismatch(BalanceMismatchDTO mismatch) {
+            mismatches.incrementAndGet();
+            if (samples.size() < MAX_SAMPLE_MISMATCHES) {
+                samples.add(mismatch);
+            }
+        }
+
+        double throughput() {
+            return perSecond(itineraries.get());
+        }
+
+        ReconciliationStatusDTO toDTO() {
+            List<BalanceMismatchDTO> sampleCopy;
+            synchronized (samples) {
+                sampleCopy = new ArrayList<>(samples);
+            }
+            return ReconciliationStatusDTO.builder()
+                    .runId(runId)
+                    .state(state)
+                    .repair(repair)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .itinerariesScanned(itineraries.get())
+                    .participantsChecked(participants.get())
+                    .mismatches(mismatches.get())
+                    .repaired(repaired.get())
+                    .conflicts(conflicts.get())
+                    .failures(failures.get())
+                    .itinerariesPerSecond(throughput())
+                    .sampleMismatches(sampleCopy)
+                    .build();
+        }
+    }
+}
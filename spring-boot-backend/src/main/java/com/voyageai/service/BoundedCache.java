@@ -0,0 +1,125 @@
+package com.voyageai.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Size-bounded in-memory cache with a per-entry expiry. Keys are spread over
+ * lock-striped segments, each a least-recently-used map that evicts its eldest
+ * entry on insert once full, so every operation on the request path is constant
+ * time however many entries are live. Expired entries are dropped when read and
+ * by {@link #purgeExpired(long)}, which callers run on a schedule.
+ */
+public final class BoundedCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public BoundedCache(int maxEntries) {
+        int perSegment = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /**
+     * Returns the value if present and not expired at {@code now} (epoch millis).
+     */
+    public V get(K key, long now) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (now >= entry.expiresAt()) {
+                segment.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    public void put(K key, V value, long expiresAt) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, new Entry<>(value, expiresAt));
+        }
+    }
+
+    /**
+     * Returns the live value for the key, creating one that never expires when
+     * absent. The factory runs under the segment lock and must be cheap.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> factory) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.computeIfAbsent(key, k -> new Entry<>(factory.apply(k), Long.MAX_VALUE)).value();
+        }
+    }
+
+    public void remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+     * Scans every entry; meant for scheduled maintenance and rare invalidations,
+     * not the request path.
+     */
+    public void removeIf(BiPredicate<? super K, ? super V> predicate) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue().value()));
+            }
+        }
+    }
+
+    public void purgeExpired(long now) {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.values().removeIf(entry -> now >= entry.expiresAt());
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.voyageai.service;
+
+import com.voyageai.dto.event.TripEventType;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Generates thumbnails and first-page previews for uploaded documents and serves
+ * them through a local disk cache. Derived assets live next to the original under
+ * deterministic keys, so documents that share an object (see StoredObjectService)
+ * also share its previews and a regenerated asset simply overwrites the old one.
+ * Pending documents are claimed with FOR UPDATE SKIP LOCKED, as in the OCR queue.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentPreviewService {
+
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_READY = "ready";
+    public static final String STATUS_FAILED = "failed";
+    public static final String STATUS_UNSUPPORTED = "unsupported";
+    public static final String STATUS_SKIPPED = "skipped";
+
+    private static final Set<String> IMAGE_TYPES = Set.of("image/jpeg", "image/png", "image/gif", "image/bmp");
+
+    private static final String CLAIM_SQL = """
+            UPDATE documents SET preview_status = 'processing', preview_updated_at = NOW()
+            WHERE id IN (
+                SELECT id FROM documents
+                WHERE preview_status = 'pending'
+                ORDER BY created_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id, itinerary_id, file_url, file_type
+            """;
+
+    private static final String FINISH_SQL = "UPDATE documents SET preview_status = ?, preview_updated_at = NOW() WHERE id = ?";
+
+    private static final String RECOVER_SQL = """
+            UPDATE documents SET preview_status = 'pending'
+            WHERE preview_status = 'processing' AND preview_updated_at < NOW() - (? * INTERVAL '1 millisecond')
+            """;
+
+    // Newest first, and only once the queue has drained so uploads are never stuck behind the backfill
+    private static final String BACKFILL_SQL = """
+            UPDATE documents SET preview_status = 'pending'
+            WHERE id IN (
+                SELECT id FROM documents
+                WHERE preview_status = 'skipped'
+                ORDER BY created_at DESC
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            AND NOT EXISTS (SELECT 1 FROM documents WHERE preview_status = 'pending')
+            """;
+
+    public enum Kind {
+        THUMBNAIL("thumbnail.jpg"),
+        PREVIEW("preview.jpg");
+
+        private final String fileName;
+
+        Kind(String fileName) {
+            this.fileName = fileName;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StorageBackend storageBackend;
+    private final PreviewDiskCache previewDiskCache;
+    private final TripEventPublisher tripEventPublisher;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${previews.enabled:true}")
+    private boolean enabled;
+
+    @Value("${previews.workers:2}")
+    private int workers;
+
+    @Value("${previews.thumbnail-size:256}")
+    private int thumbnailSize;
+
+    @Value("${previews.preview-size:1024}")
+    private int previewSize;
+
+    @Value("${previews.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    @Value("${previews.pdftoppm.command:pdftoppm}")
+    private String pdftoppmCommand;
+
+    @Value("${previews.process-timeout-ms:60000}")
+    private long processTimeoutMs;
+
+    @Value("${previews.stale-after-ms:600000}")
+    private long staleAfterMs;
+
+    @Value("${previews.backfill.enabled:false}")
+    private boolean backfillEnabled;
+
+    @Value("${previews.backfill.batch-size:100}")
+    private int backfillBatchSize;
+
+    private volatile ExecutorService pool;
+    private volatile Semaphore idleWorkers;
+
+    /**
+     * Deterministic key of a derived asset for the object stored at storageKey.
+     */
+    public static String derivedKey(String storageKey, Kind kind) {
+        return "derived/" + storageKey + "/" + kind.fileName;
+    }
+
+    public static List<String> derivedKeys(String storageKey) {
+        return List.of(derivedKey(storageKey, Kind.THUMBNAIL), derivedKey(storageKey, Kind.PREVIEW));
+    }
+
+    /**
+     * Opens the derived asset from the local disk cache, fetching it from storage
+     * on a miss. A fetched asset is served from memory, so it does not matter if
+     * the cache evicts it again straight away. The caller must close the stream.
+     */
+    public InputStream openAsset(String storageKey, Kind kind) throws IOException {
+        String key = derivedKey(storageKey, kind);
+        Optional<InputStream> cached = previewDiskCache.open(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        byte[] asset;
+        try (InputStream content = storageBackend.open(key)) {
+            asset = content.readAllBytes();
+        }
+        previewDiskCache.put(key, asset);
+        return new ByteArrayInputStream(asset);
+    }
+
+    public void evict(String storageKey) {
+        for (Kind kind : Kind.values()) {
+            previewDiskCache.remove(derivedKey(storageKey, kind));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${previews.poll-interval-ms:2000}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        ensurePool();
+
+        int idle = idleWorkers.availablePermits();
+        if (idle == 0) {
+            return;
+        }
+
+        List<PendingPreview> claimed = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new PendingPreview(
+                rs.getObject("id", UUID.class),
+                rs.getObject("itinerary_id", UUID.class),
+                DocumentService.extractKeyFromUrl(rs.getString("file_url")),
+                rs.getString("file_type")), idle);
+
+        for (PendingPreview pending : claimed) {
+            idleWorkers.acquireUninterruptibly();
+            pool.execute(() -> {
+                try {
+                    generate(pending);
+                } finally {
+                    idleWorkers.release();
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${previews.recovery-interval-ms:60000}")
+    public void recoverStale() {
+        if (enabled) {
+            jdbcTemplate.update(RECOVER_SQL, staleAfterMs);
+        }
+    }
+
+    /**
+     * Re-queues documents that predate previews, one batch at a time. Off by default
+     * so a deploy does not render the whole document table at once.
+     */
+    @Scheduled(fixedDelayString = "${previews.backfill.interval-ms:60000}")
+    public void backfill() {
+        if (enabled && backfillEnabled) {
+            int queued = jdbcTemplate.update(BACKFILL_SQL, backfillBatchSize);
+            if (queued > 0) {
+                log.info("Queued {} existing documents for preview generation", queued);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private synchronized void ensurePool() {
+        if (pool == null) {
+            idleWorkers = new Semaphore(workers);
+            pool = Executors.newFixedThreadPool(workers, r -> {
+                Thread thread = new Thread(r, "preview-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void generate(PendingPreview pending) {
+        String status;
+        try {
+            if (!"application/pdf".equals(pending.contentType()) && !IMAGE_TYPES.contains(pending.contentType())) {
+                status = STATUS_UNSUPPORTED;
+            } else if (storageBackend.head(derivedKey(pending.storageKey(), Kind.THUMBNAIL)).isPresent()) {
+                // Shared object whose previews were already generated for another document
+                status = STATUS_READY;
+            } else {
+                BufferedImage preview = renderPreview(pending);
+                if (preview == null) {
+                    status = STATUS_UNSUPPORTED;
+                } else {
+                    upload(derivedKey(pending.storageKey(), Kind.PREVIEW), encodeJpeg(preview));
+                    upload(derivedKey(pending.storageKey(), Kind.THUMBNAIL), encodeJpeg(scaleToFit(preview, thumbnailSize)));
+                    evict(pending.storageKey());
+                    status = STATUS_READY;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Preview generation failed for document {}: {}", pending.documentId(), e.getMessage());
+            status = STATUS_FAILED;
+        }
+
+        String finalStatus = status;
+        new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+            jdbcTemplate.update(FINISH_SQL, finalStatus, pending.documentId());
+            if (STATUS_READY.equals(finalStatus)) {
+                tripEventPublisher.publish(pending.itineraryId(), TripEventType.DOCUMENT_PREVIEW_READY, pending.documentId());
+            }
+        });
+    }
+
+    private BufferedImage renderPreview(PendingPreview pending) throws IOException {
+        try (InputStream content = storageBackend.open(pending.storageKey())) {
+            if ("application/pdf".equals(pending.contentType())) {
+                return renderFirstPdfPage(content);
+            }
+            return readImage(content, previewSize);
+        }
+    }
+
+    /**
+     * Decodes an image with source subsampling so a large photo is never fully
+     * decoded just to produce a small preview.
+     */
+    private BufferedImage readImage(InputStream content, int targetSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, longestSide / (targetSize * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return scaleToFit(reader.read(0, param), targetSize);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage renderFirstPdfPage(InputStream content) throws IOException {
+        Path input = Files.createTempFile("preview-input-", ".pdf");
+        Path outputPrefix = Files.createTempFile("preview-output-", "");
+        Path output = Path.of(outputPrefix + ".jpg");
+        try {
+            Files.copy(content, input, StandardCopyOption.REPLACE_EXISTING);
+            Process process = new ProcessBuilder(pdftoppmCommand, "-f", "1", "-l", "1", "-singlefile",
+                    "-jpeg", "-scale-to", String.valueOf(previewSize), input.toString(), outputPrefix.toString())
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                if (!process.waitFor(processTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                    throw new IOException("pdftoppm timed out after " + processTimeoutMs + " ms");
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+                throw new IOException("pdftoppm interrupted", e);
+            }
+            if (process.exitValue() != 0) {
+                throw new IOException("pdftoppm exited with status " + process.exitValue());
+            }
+            try (InputStream rendered = Files.newInputStream(output)) {
+                return readImage(rendered, previewSize);
+            }
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(outputPrefix);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage source, int maxSize) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        // JPEG has no alpha channel, so transparent areas are flattened onto white
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private void upload(String key, byte[] content) throws IOException {
+        storageBackend.put(key, "image/jpeg", new ByteArrayInputStream(content), content.length);
+    }
+
+    private record PendingPreview(UUID documentId, UUID itineraryId, String storageKey, String contentType) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.voyageai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageai.dto.document.DocumentDTO;
+import com.voyageai.dto.document.DocumentSearchHitDTO;
+import com.voyageai.dto.document.DocumentSearchResultDTO;
+import com.voyageai.entity.User;
+import com.voyageai.exception.BadRequestException;
+import com.voyageai.exception.ForbiddenException;
+import com.voyageai.repository.ItineraryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Ranked full-text search over documents the user can see, backed by the
+ * trigger-maintained search_vector column and the GIN index on extracted_data.
+ * Matching and ranking run entirely in the index query; headlines are computed only for
+ * the rows of the requested page, and entities are loaded only for those ids.
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentSearchService {
+
+    private static final String ACCESS_FILTER = "d.itinerary_id IN (SELECT id FROM itineraries WHERE user_id = ? " +
+            "UNION SELECT itinerary_id FROM trip_participants WHERE user_id = ?)";
+
+    private static final String HEADLINE_SOURCE =
+            "coalesce(d.extracted_data->>'extractedText', d.file_name)";
+
+    private static final String HEADLINE_OPTIONS = "MaxFragments=2, MaxWords=20, MinWords=5";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ItineraryRepository itineraryRepository;
+    private final DocumentService documentService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${documents.search.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${documents.search.max-offset:10000}")
+    private int maxOffset;
+
+    public DocumentSearchResultDTO search(String query, UUID itineraryId, String documentType, String dataFilter,
+                                         int page, int size, User user) {
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new BadRequestException("Page must be >= 0 and size between 1 and " + maxPageSize);
+        }
+        if ((long) page * size > maxOffset) {
+            throw new BadRequestException("Results beyond " + maxOffset + " are not available, refine the search instead");
+        }
+        if (itineraryId != null &&
+            !itineraryRepository.isOwner(itineraryId, user.getId()) &&
+            !itineraryRepository.isParticipant(itineraryId, user.getId())) {
+            throw new ForbiddenException("You don't have access to this itinerary");
+        }
+
+        boolean fullText = query != null && !query.isBlank();
+        List<Object> args = new ArrayList<>();
+        StringBuilder where = new StringBuilder(ACCESS_FILTER);
+        args.add(user.getId());
+        args.add(user.getId());
+
+        if (fullText) {
+            where.append(" AND d.search_vector @@ websearch_to_tsquery('english', ?)");
+            args.add(query);
+        }
+        if (itineraryId != null) {
+            where.append(" AND d.itinerary_id = ?");
+            args.add(itineraryId);
+        }
+        if (documentType != null && !documentType.isBlank()) {
+            where.append(" AND d.document_type = ?");
+            args.add(documentType);
+        }
+        if (dataFilter != null && !dataFilter.isBlank()) {
+            where.append(" AND d.extracted_data @> ?::jsonb");
+            args.add(validateDataFilter(dataFilter));
+        }
+
+        // Fetch one extra row to tell whether another page exists without counting all matches
+        String sql;
+        if (fullText) {
+            sql = """
+                    SELECT r.id, r.rank, ts_headline('english', %s, websearch_to_tsquery('english', ?), '%s') AS headline
+                    FROM (
+                        SELECT d.id, ts_rank_cd(d.search_vector, websearch_to_tsquery('english', ?)) AS rank, d.created_at
+                        FROM documents d
+                        WHERE %s
+                        ORDER BY rank DESC, d.created_at DESC, d.id
+                        LIMIT ? OFFSET ?
+                    ) r
+                    JOIN documents d ON d.id = r.id
+                    ORDER BY r.rank DESC, r.created_at DESC, r.id
+                    """.formatted(HEADLINE_SOURCE, HEADLINE_OPTIONS, where);
+            args.add(0, query);
+            args.add(1, query);
+        } else {
+            sql = """
+                    SELECT d.id, 0 AS rank, NULL AS headline
+                    FROM documents d
+                    WHERE %s
+                    ORDER BY d.created_at DESC, d.id
+                    LIMIT ? OFFSET ?
+                    """.formatted(where);
+        }
+        args.add(size + 1);
+        args.add(page * size);
+
+        List<Hit> hits = jdbcTemplate.query(sql, (rs, rowNum) ->
+                new Hit(rs.getObject("id", UUID.class), rs.getDouble("rank"), rs.getString("headline")), args.toArray());
+
+        boolean hasNext = hits.size() > size;
+        if (hasNext) {
+            hits = hits.subList(0, size);
+        }
+
+        Map<UUID, DocumentDTO> documents = documentService.getDocumentsByIds(hits.stream().map(Hit::id).toList());
+        List<DocumentSearchHitDTO> results = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            DocumentDTO document = documents.get(hit.id());
+            if (document != null) {
+                results.add(DocumentSearchHitDTO.builder()
+                        .document(document)
+                        .rank(hit.rank())
+                        .headline(hit.headline())
+                        .build());
+            }
+        }
+
+        return DocumentSearchResultDTO.builder()
+                .results(results)
+                .page(page)
+                .size(size)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    private String validateDataFilter(String dataFilter) {
+        try {
+            JsonNode node = objectMapper.readTree(dataFilter);
+            if (node == null || !node.isObject()) {
+                throw new BadRequestException("Data filter must be a JSON object");
+            }
+            return node.toString();
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Data filter is not valid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private record Hit(UUID id, double rank, String headline) {
+    }
+}
@@ -1,7 +1,9 @@
 package com.voyageai.service;
 
 import com.voyageai.dto.document.*;
+import com.voyageai.dto.event.TripEventType;
 import com.voyageai.entity.*;
+import com.voyageai.exception.BadRequestException;
 import com.voyageai.exception.ForbiddenException;
 import com.voyageai.exception.ResourceNotFoundException;
 import com.voyageai.repository.*;
@@ -11,15 +13,18 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,14 +34,30 @@ public class DocumentService {
 
     private final DocumentRepository documentRepository;
     private final ItineraryRepository itineraryRepository;
-    private final S3Client s3Client;
+    private final StorageBackend storageBackend;
+    private final S3Service s3Service;
+    private final PresignedUrlCache presignedUrlCache;
+    private final OcrJobQueue ocrJobQueue;
+    private final StoredObjectService storedObjectService;
+    private final DocumentPreviewService documentPreviewService;
+    private final TripEventPublisher tripEventPublisher;
 
     @Value("${aws.s3.bucket}")
     private String bucketName;
 
-    @Value("${aws.region}")
+    @Value("${aws.s3.region:us-east-1}")
     private String region;
 
+    @Value("${documents.upload.max-bytes:10485760}")
+    private long maxUploadBytes;
+
+    @Value("${documents.upload.allowed-content-types:application/pdf,image/jpeg,image/png}")
+    private List<String> allowedContentTypes;
+
+    @Value("${documents.upload.url-expiry-seconds:900}")
+    private long uploadUrlExpirySeconds;
+
+    @Transactional(readOnly = true)
     public List<DocumentDTO> getDocuments(UUID itineraryId, User user) {
         validateAccess(itineraryId, user);
         return documentRepository.findByItineraryIdOrderByCreatedAtDesc(itineraryId)
@@ -45,6 +66,7 @@ public class DocumentService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<DocumentDTO> getDocumentsByType(UUID itineraryId, String documentType, User user) {
         validateAccess(itineraryId, user);
         return documentRepository.findByItineraryIdAndDocumentType(itineraryId, documentType)
@@ -53,6 +75,14 @@ public class DocumentService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Loads documents by id for callers that have already checked access, such as search.
+     */
+    Map<UUID, DocumentDTO> getDocumentsByIds(List<UUID> ids) {
+        return documentRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Document::getId, this::mapToDTO));
+    }
+
     @Transactional
     public DocumentDTO uploadDocument(UUID itineraryId, MultipartFile file, String documentType, User user) throws IOException {
         validateAccess(itineraryId, user);
@@ -60,42 +90,162 @@ public class DocumentService {
         Itinerary itinerary = itineraryRepository.findById(itineraryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found"));
 
-        // Generate unique file key
-        String fileKey = String.format("%s/%s/%s-%s",
-                itineraryId,
-                user.getId(),
-                UUID.randomUUID(),
-                file.getOriginalFilename());
+        // The part is spooled to disk, so hashing it first costs a local read and
+        // lets identical content skip the S3 PUT entirely
+        String contentHash = sha256(file);
+        Optional<StoredObjectService.StoredObject> existing = storedObjectService.acquire(contentHash);
 
-        // Upload to S3
-        PutObjectRequest putRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
+        String storageKey;
+        if (existing.isPresent()) {
+            storageKey = existing.get().storageKey();
+            log.debug("Upload deduplicated against {}", storageKey);
+        } else {
+            String fileKey = generateFileKey(itineraryId, user, file.getOriginalFilename());
+            // Stream to S3 from the disk-backed multipart part
+            try (InputStream in = file.getInputStream()) {
+                storageBackend.put(fileKey, file.getContentType(), in, file.getSize());
+            }
+            storageKey = storedObjectService.register(contentHash, fileKey, file.getSize(), file.getContentType());
+        }
+
+        Document document = createDocument(itinerary, user, file.getOriginalFilename(), file.getContentType(),
+                file.getSize(), storageKey, null, contentHash, documentType);
+        log.info("Document uploaded: {} for itinerary: {}", document.getId(), itineraryId);
+
+        return mapToDTO(document);
+    }
+
+    /**
+     * First step of a direct-to-storage upload: returns a short-lived presigned PUT
+     * bound to the declared content type and size. The bytes never pass through
+     * this service; the client calls {@link #completeUpload} once the PUT succeeds.
+     */
+    public PresignedUploadDTO createUploadUrl(UUID itineraryId, PresignedUploadRequest request, User user) {
+        validateAccess(itineraryId, user);
+        if (!storageBackend.supportsPresignedUrls()) {
+            throw new BadRequestException("Direct uploads are not supported by the " + storageBackend.getName() + " storage backend");
+        }
+        validateUpload(request.getContentType(), request.getFileSize());
+
+        String fileKey = generateFileKey(itineraryId, user, request.getFileName());
+        String contentHash = normalizeHash(request.getSha256());
+        if (contentHash != null && documentRepository.existsByItineraryIdAndContentHash(itineraryId, contentHash)) {
+            return PresignedUploadDTO.builder()
+                    .uploadRequired(false)
+                    .key(fileKey)
+                    .build();
+        }
+
+        PresignedPutObjectRequest presigned = s3Service.presignPut(fileKey, request.getContentType(),
+                request.getFileSize(), contentHash != null ? toBase64(contentHash) : null,
+                Duration.ofSeconds(uploadUrlExpirySeconds));
+
+        Map<String, List<String>> headers = presigned.signedHeaders().entrySet().stream()
+                .filter(e -> !"host".equalsIgnoreCase(e.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        return PresignedUploadDTO.builder()
+                .uploadRequired(true)
+                .uploadUrl(presigned.url().toString())
+                .method(presigned.httpRequest().method().name())
                 .key(fileKey)
-                .contentType(file.getContentType())
+                .headers(headers)
+                .expiresAt(presigned.expiration())
                 .build();
+    }
 
-        s3Client.putObject(putRequest, RequestBody.fromBytes(file.getBytes()));
+    /**
+     * Second step of a direct-to-storage upload: verifies the object with a HEAD
+     * request and only then creates the document record. A hash-only completion
+     * (no object uploaded) is honoured only when identical content is already
+     * attached to the same trip, so knowing a hash never grants access to a file
+     * from another trip.
+     */
+    @Transactional
+    public DocumentDTO completeUpload(UUID itineraryId, CompleteUploadRequest request, User user) {
+        validateAccess(itineraryId, user);
 
-        String fileUrl = String.format("https://%s.s3.%s.amazonaws.com/%s", bucketName, region, fileKey);
+        String fileKey = request.getKey();
+        if (!fileKey.startsWith(itineraryId + "/" + user.getId() + "/")) {
+            throw new ForbiddenException("Upload key does not belong to this itinerary");
+        }
 
-        // Save document record
-        Document document = Document.builder()
-                .itinerary(itinerary)
-                .user(user)
-                .fileName(file.getOriginalFilename())
-                .fileType(file.getContentType())
-                .fileSize((int) file.getSize())
-                .fileUrl(fileUrl)
-                .documentType(documentType)
-                .ocrStatus("pending")
-                .build();
+        Itinerary itinerary = itineraryRepository.findById(itineraryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found"));
 
-        document = documentRepository.save(document);
-        log.info("Document uploaded: {} for itinerary: {}", document.getId(), itineraryId);
+        // Documents completed before upload_key existed only match on their own file URL
+        if (documentRepository.existsByUploadKey(fileKey) || documentRepository.existsByFileUrl(toFileUrl(fileKey))) {
+            throw new BadRequestException("Upload has already been completed");
+        }
+
+        String contentHash = normalizeHash(request.getSha256());
+        if (contentHash != null && documentRepository.existsByItineraryIdAndContentHash(itineraryId, contentHash)) {
+            Optional<StoredObjectService.StoredObject> existing = storedObjectService.acquire(contentHash);
+            if (existing.isPresent()) {
+                StoredObjectService.StoredObject stored = existing.get();
+                // Drop the client's copy in case it uploaded anyway
+                storedObjectService.deleteAfterCommit(fileKey);
+                Document document = createDocument(itinerary, user, request.getFileName(), stored.contentType(),
+                        stored.fileSize(), stored.storageKey(), fileKey, contentHash, request.getDocumentType());
+                log.info("Direct upload deduplicated: {} for itinerary: {}", document.getId(), itineraryId);
+                return mapToDTO(document);
+            }
+        }
+
+        StorageBackend.ObjectMetadata head = storageBackend.head(fileKey)
+                .orElseThrow(() -> new BadRequestException("Uploaded file not found, the upload may not have finished"));
+
+        try {
+            validateUpload(head.contentType(), head.size());
+            if (contentHash != null && !toBase64(contentHash).equals(head.checksumSha256())) {
+                throw new BadRequestException("Uploaded file does not match the declared SHA-256");
+            }
+        } catch (BadRequestException e) {
+            storageBackend.delete(fileKey);
+            throw e;
+        }
+
+        String storageKey = contentHash != null
+                ? storedObjectService.register(contentHash, fileKey, head.size(), head.contentType())
+                : fileKey;
+
+        Document document = createDocument(itinerary, user, request.getFileName(), head.contentType(),
+                head.size(), storageKey, fileKey, contentHash, request.getDocumentType());
+        log.info("Direct upload completed: {} for itinerary: {}", document.getId(), itineraryId);
 
         return mapToDTO(document);
     }
 
+    /**
+     * Opens a thumbnail or first-page preview, served from the local preview cache.
+     */
+    public InputStream openDocumentPreview(UUID documentId, DocumentPreviewService.Kind kind, User user) throws IOException {
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
+        validateAccess(document.getItinerary().getId(), user);
+
+        if (!DocumentPreviewService.STATUS_READY.equals(document.getPreviewStatus())) {
+            throw new ResourceNotFoundException("Preview is not available for this document");
+        }
+        return documentPreviewService.openAsset(extractKeyFromUrl(document.getFileUrl()), kind);
+    }
+
+    public DocumentDownload getDocumentDownload(UUID documentId, User user) {
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Document not found"));
+        validateAccess(document.getItinerary().getId(), user);
+
+        String key = extractKeyFromUrl(document.getFileUrl());
+        StorageBackend.ObjectMetadata metadata = storageBackend.head(key)
+                .orElseThrow(() -> new ResourceNotFoundException("Document file not found"));
+        return new DocumentDownload(key, document.getFileName(), document.getFileType(), metadata.size(),
+                storageBackend.localFile(key));
+    }
+
+    public void transferDocument(DocumentDownload download, long offset, long length, WritableByteChannel target) throws IOException {
+        storageBackend.transferTo(download.storageKey(), offset, length, target);
+    }
+
     @Transactional
     public DocumentDTO updateDocumentOcrResult(UUID documentId, OcrResultRequest request, User user) {
         Document document = documentRepository.findById(documentId)
@@ -122,6 +272,7 @@ public class DocumentService {
         }
 
         document = documentRepository.save(document);
+        tripEventPublisher.publish(document.getItinerary().getId(), TripEventType.OCR_COMPLETED, documentId);
         return mapToDTO(document);
     }
 
@@ -134,23 +285,34 @@ public class DocumentService {
             throw new ForbiddenException("You can only delete your own documents");
         }
 
-        // Delete from S3
-        try {
-            String key = extractKeyFromUrl(document.getFileUrl());
-            DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .build();
-            s3Client.deleteObject(deleteRequest);
-        } catch (Exception e) {
-            log.warn("Failed to delete file from S3: {}", e.getMessage());
-        }
-
+        releaseStorage(document);
         documentRepository.delete(document);
+        tripEventPublisher.publish(document.getItinerary().getId(), TripEventType.DOCUMENT_DELETED, documentId);
         log.info("Document deleted: {}", documentId);
     }
 
+    /**
+     * Releases the stored files of every document in an itinerary that is about to
+     * be deleted; the rows themselves go with the itinerary's cascade.
+     */
+    @Transactional
+    public void releaseItineraryDocuments(UUID itineraryId) {
+        documentRepository.findByItineraryIdOrderByCreatedAtDesc(itineraryId).forEach(this::releaseStorage);
+    }
+
     // Helper methods
+    private void releaseStorage(Document document) {
+        String key = extractKeyFromUrl(document.getFileUrl());
+        presignedUrlCache.invalidate(key);
+        documentPreviewService.evict(key);
+        if (document.getContentHash() != null) {
+            // Shared object: removed from storage only when the last document using it is deleted
+            storedObjectService.release(document.getContentHash());
+        } else {
+            storedObjectService.deleteAfterCommit(key);
+        }
+    }
+
     private void validateAccess(UUID itineraryId, User user) {
         if (!itineraryRepository.isOwner(itineraryId, user.getId()) &&
             !itineraryRepository.isParticipant(itineraryId, user.getId())) {
@@ -158,11 +320,114 @@ public class DocumentService {
         }
     }
 
-    private String extractKeyFromUrl(String url) {
+    /**
+     * Saves the document row. When identical content has already been through OCR
+     * the result is copied over instead of queueing the same work again.
+     */
+    private Document createDocument(Itinerary itinerary, User user, String fileName, String contentType, long fileSize,
+                                    String storageKey, String uploadKey, String contentHash, String documentType) {
+        Document document = Document.builder()
+                .itinerary(itinerary)
+                .user(user)
+                .fileName(fileName)
+                .fileType(contentType)
+                .fileSize((int) fileSize)
+                .fileUrl(toFileUrl(storageKey))
+                .uploadKey(uploadKey)
+                .contentHash(contentHash)
+                .documentType(documentType)
+                .ocrStatus("pending")
+                .build();
+
+        Optional<Document> ocrSource = contentHash != null
+                ? documentRepository.findFirstByContentHashAndOcrStatusOrderByUpdatedAtDesc(contentHash, "completed")
+                : Optional.empty();
+        ocrSource.ifPresent(source -> copyOcrResult(source, document));
+
+        Document saved = documentRepository.save(document);
+        if (ocrSource.isEmpty()) {
+            ocrJobQueue.enqueue(saved.getId());
+        }
+        tripEventPublisher.publish(itinerary.getId(), TripEventType.DOCUMENT_UPLOADED, saved.getId());
+        return saved;
+    }
+
+    static void copyOcrResult(Document source, Document target) {
+        target.setOcrStatus("completed");
+        target.setOcrConfidence(source.getOcrConfidence());
+        target.setExtractedData(source.getExtractedData());
+        target.setProviderName(source.getProviderName());
+        target.setBookingReference(source.getBookingReference());
+        target.setAmount(source.getAmount());
+        target.setCurrency(source.getCurrency());
+        target.setEventDate(source.getEventDate());
+    }
+
+    String toFileUrl(String key) {
+        return String.format("https://%s.s3.%s.amazonaws.com/%s", bucketName, region, key);
+    }
+
+    private static String sha256(MultipartFile file) throws IOException {
+        MessageDigest digest = newSha256();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = file.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String normalizeHash(String hash) {
+        return hash == null || hash.isBlank() ? null : hash.toLowerCase(Locale.ROOT);
+    }
+
+    private static String toBase64(String hexHash) {
+        return Base64.getEncoder().encodeToString(HexFormat.of().parseHex(hexHash));
+    }
+
+    private String generateFileKey(UUID itineraryId, User user, String fileName) {
+        String safeName = fileName == null ? "file" : fileName.replaceAll("[/\\\\]", "_");
+        return String.format("%s/%s/%s-%s",
+                itineraryId,
+                user.getId(),
+                UUID.randomUUID(),
+                safeName);
+    }
+
+    private void validateUpload(String contentType, Long size) {
+        if (size == null || size <= 0 || size > maxUploadBytes) {
+            throw new BadRequestException("File size must be between 1 and " + maxUploadBytes + " bytes");
+        }
+        if (contentType == null || !allowedContentTypes.contains(contentType)) {
+            throw new BadRequestException("Unsupported content type: " + contentType);
+        }
+    }
+
+    static String extractKeyFromUrl(String url) {
         return url.substring(url.indexOf(".com/") + 5);
     }
 
     private DocumentDTO mapToDTO(Document document) {
+        // Storage is private: clients get a short-lived signed URL, or the proxied download endpoint
+        // when the backend cannot sign URLs
+        String fileUrl = "/api/documents/" + document.getId() + "/download";
+        Instant fileUrlExpiresAt = null;
+        if (storageBackend.supportsPresignedUrls()) {
+            PresignedUrlCache.PresignedUrl downloadUrl = presignedUrlCache.get(extractKeyFromUrl(document.getFileUrl()));
+            fileUrl = downloadUrl.url();
+            fileUrlExpiresAt = downloadUrl.expiresAt();
+        }
+        boolean previewReady = DocumentPreviewService.STATUS_READY.equals(document.getPreviewStatus());
         return DocumentDTO.builder()
                 .id(document.getId())
                 .itineraryId(document.getItinerary().getId())
@@ -170,7 +435,11 @@ public class DocumentService {
                 .fileName(document.getFileName())
                 .fileType(document.getFileType())
                 .fileSize(document.getFileSize())
-                .fileUrl(document.getFileUrl())
+                .fileUrl(fileUrl)
+                .fileUrlExpiresAt(fileUrlExpiresAt)
+                .previewStatus(document.getPreviewStatus() != null ? document.getPreviewStatus() : DocumentPreviewService.STATUS_PENDING)
+                .thumbnailUrl(previewReady ? "/api/documents/" + document.getId() + "/thumbnail" : null)
+                .previewUrl(previewReady ? "/api/documents/" + document.getId() + "/preview" : null)
                 .documentType(document.getDocumentType())
                 .providerName(document.getProviderName())
                 .bookingReference(document.getBookingReference())
@@ -184,4 +453,10 @@ public class DocumentService {
                 .updatedAt(document.getUpdatedAt())
                 .build();
     }
+
+    /**
+     * @param localFile the backing file when the storage backend is local, so the container can sendfile it
+     */
+    public record DocumentDownload(String storageKey, String fileName, String contentType, long size, Optional<Path> localFile) {
+    }
 }
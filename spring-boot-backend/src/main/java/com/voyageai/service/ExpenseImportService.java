@@ -0,0 +1,454 @@
+package com.voyageai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageai.dto.event.TripEventType;
+import com.voyageai.dto.expense.ExpenseImportErrorDTO;
+import com.voyageai.dto.expense.ExpenseImportResultDTO;
+import com.voyageai.entity.*;
+import com.voyageai.exception.BadRequestException;
+import com.voyageai.exception.ForbiddenException;
+import com.voyageai.exception.ResourceNotFoundException;
+import com.voyageai.repository.*;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Bulk import of expenses from CSV or NDJSON. The request body is first spooled
+ * to a temporary file with no connection or transaction held, so a slow client
+ * cannot pin either for the length of its upload. The file is then read one
+ * record at a time in a single transaction, rows are written in chunks, and
+ * participant totals are applied once at the end of the import.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+    private final ItineraryRepository itineraryRepository;
+    private final TripParticipantRepository participantRepository;
+    private final FxRateService fxRateService;
+    private final TripEventPublisher tripEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${expense-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${expense-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public ExpenseImportResultDTO importExpenses(UUID itineraryId, String format, InputStream body, User user) throws IOException {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new BadRequestException("Unsupported import format: " + format);
+        }
+        validateAccess(itineraryId, user);
+
+        Path spooled = Files.createTempFile("expense-import-", null);
+        try {
+            Files.copy(body, spooled, StandardCopyOption.REPLACE_EXISTING);
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                try {
+                    return importSpooled(itineraryId, format, spooled);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    private ExpenseImportResultDTO importSpooled(UUID itineraryId, String format, Path spooled) throws IOException {
+        Itinerary itinerary = itineraryRepository.findById(itineraryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found"));
+
+        ImportContext context = new ImportContext(itinerary, participantRepository.findByItineraryId(itineraryId));
+        if (context.participants.isEmpty()) {
+            throw new BadRequestException("Itinerary has no participants");
+        }
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(spooled), StandardCharsets.UTF_8))) {
+            if (FORMAT_CSV.equals(format)) {
+                readCsv(reader, context);
+            } else {
+                readNdjson(reader, context);
+            }
+        }
+        flushChunk(context);
+        applyTotals(context);
+        if (context.imported > 0) {
+            tripEventPublisher.publish(itineraryId, TripEventType.EXPENSES_IMPORTED, null);
+        }
+
+        log.info("Imported {} of {} expenses for itinerary: {}", context.imported, context.totalRows, itineraryId);
+
+        return ExpenseImportResultDTO.builder()
+                .itineraryId(itineraryId)
+                .totalRows(context.totalRows)
+                .importedCount(context.imported)
+                .failedCount(context.failed)
+                .errors(context.errors)
+                .build();
+    }
+
+    private void readCsv(BufferedReader reader, ImportContext context) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (Map.Entry<String, Integer> column : columns.entrySet()) {
+                int idx = column.getValue();
+                fields.put(column.getKey(), idx < record.size() ? record.get(idx) : null);
+            }
+            processRow(csv.recordLine(), fields, context);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportContext context) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                node.fields().forEachRemaining(entry -> {
+                    JsonNode value = entry.getValue();
+                    String text;
+                    if (value.isArray()) {
+                        List<String> items = new ArrayList<>();
+                        value.forEach(item -> items.add(item.asText()));
+                        text = String.join(";", items);
+                    } else {
+                        text = value.isNull() ? null : value.asText();
+                    }
+                    fields.put(toColumnName(entry.getKey()), text);
+                });
+            } catch (JsonProcessingException e) {
+                context.totalRows++;
+                context.fail(lineNumber, "Invalid JSON: " + e.getOriginalMessage(), maxReportedErrors);
+                continue;
+            }
+            processRow(lineNumber, fields, context);
+        }
+    }
+
+    private void processRow(int lineNumber, Map<String, String> fields, ImportContext context) {
+        context.totalRows++;
+        try {
+            addExpense(fields, context);
+        } catch (BadRequestException e) {
+            context.fail(lineNumber, e.getMessage(), maxReportedErrors);
+            return;
+        }
+        if (context.pendingExpenses.size() >= batchSize) {
+            flushChunk(context);
+        }
+    }
+
+    private void addExpense(Map<String, String> fields, ImportContext context) {
+        LocalDate date = parseDate(required(fields, "date"));
+        BigDecimal amount = parseAmount(required(fields, "amount"));
+        String category = required(fields, "category");
+        TripParticipant paidBy = context.resolve(required(fields, "paid_by"));
+
+        String currency = fields.get("currency");
+        currency = currency == null || currency.isBlank()
+                ? context.itinerary.getBaseCurrency()
+                : currency.trim().toUpperCase();
+        if (!fxRateService.isSupported(currency)) {
+            throw new BadRequestException("Unsupported currency: " + currency);
+        }
+
+        List<TripParticipant> splitWith = context.participants;
+        String splitWithField = fields.get("split_with");
+        if (splitWithField != null && !splitWithField.isBlank()) {
+            splitWith = new ArrayList<>();
+            for (String key : splitWithField.split(";")) {
+                if (!key.isBlank()) {
+                    splitWith.add(context.resolve(key));
+                }
+            }
+            if (splitWith.isEmpty()) {
+                throw new BadRequestException("split_with names no participants");
+            }
+        }
+
+        Expense expense = Expense.builder()
+                .itinerary(context.itinerary)
+                .paidByParticipant(paidBy)
+                .amount(amount)
+                .currency(currency)
+                .category(category)
+                .description(fields.get("description"))
+                .date(date)
+                .splitType("equal")
+                .build();
+        context.pendingExpenses.add(expense);
+        context.addPaid(paidBy.getId(), amount);
+
+        BigDecimal splitAmount = amount.divide(BigDecimal.valueOf(splitWith.size()), 2, RoundingMode.HALF_UP);
+        for (TripParticipant participant : splitWith) {
+            context.pendingSplits.add(ExpenseSplit.builder()
+                    .expense(expense)
+                    .participant(participant)
+                    .amount(splitAmount)
+                    .build());
+            context.addOwed(participant.getId(), splitAmount);
+        }
+    }
+
+    private void flushChunk(ImportContext context) {
+        if (context.pendingExpenses.isEmpty()) {
+            return;
+        }
+        expenseRepository.saveAll(context.pendingExpenses);
+        expenseSplitRepository.saveAll(context.pendingSplits);
+        entityManager.flush();
+        entityManager.clear();
+
+        context.imported += context.pendingExpenses.size();
+        context.pendingExpenses.clear();
+        context.pendingSplits.clear();
+    }
+
+    private void applyTotals(ImportContext context) {
+        context.totals.forEach((participantId, t) ->
+                participantRepository.addToTotals(participantId, t[0], t[1]));
+    }
+
+    private void validateAccess(UUID itineraryId, User user) {
+        if (!itineraryRepository.isOwner(itineraryId, user.getId()) &&
+            !itineraryRepository.isParticipant(itineraryId, user.getId())) {
+            throw new ForbiddenException("You don't have access to this itinerary");
+        }
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) {
+            throw new BadRequestException("Missing " + name);
+        }
+        return value.trim();
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid date: " + value);
+        }
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid amount: " + value);
+        }
+        if (amount.signum() <= 0) {
+            throw new BadRequestException("Amount must be positive");
+        }
+        if (amount.scale() > 2) {
+            throw new BadRequestException("Amount has more than 2 decimal places: " + value);
+        }
+        return amount;
+    }
+
+    /**
+     * Maps NDJSON keys such as paidBy or splitWith onto the CSV column names
+     */
+    private static String toColumnName(String key) {
+        return key.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+    }
+
+    private static final class ImportContext {
+
+        private final Itinerary itinerary;
+        private final List<TripParticipant> participants;
+        private final Map<String, TripParticipant> participantIndex = new HashMap<>();
+        private final Set<String> ambiguousKeys = new HashSet<>();
+        private final Map<UUID, BigDecimal[]> totals = new HashMap<>();
+        private final List<Expense> pendingExpenses = new ArrayList<>();
+        private final List<ExpenseSplit> pendingSplits = new ArrayList<>();
+        private final List<ExpenseImportErrorDTO> errors = new ArrayList<>();
+        private int totalRows;
+        private int imported;
+        private int failed;
+
+        ImportContext(Itinerary itinerary, List<TripParticipant> participants) {
+            this.itinerary = itinerary;
+            this.participants = participants;
+            for (TripParticipant participant : participants) {
+                index(participant.getName(), participant);
+                index(participant.getEmail(), participant);
+            }
+        }
+
+        private void index(String key, TripParticipant participant) {
+            if (key == null || key.isBlank()) {
+                return;
+            }
+            String normalized = key.trim().toLowerCase();
+            TripParticipant existing = participantIndex.putIfAbsent(normalized, participant);
+            if (existing != null && !existing.getId().equals(participant.getId())) {
+                ambiguousKeys.add(normalized);
+            }
+        }
+
+        TripParticipant resolve(String key) {
+            String normalized = key.trim().toLowerCase();
+            if (ambiguousKeys.contains(normalized)) {
+                throw new BadRequestException("Ambiguous participant: " + key.trim());
+            }
+            TripParticipant participant = participantIndex.get(normalized);
+            if (participant == null) {
+                throw new BadRequestException("Unknown participant: " + key.trim());
+            }
+            return participant;
+        }
+
+        void addPaid(UUID participantId, BigDecimal amount) {
+            participantTotals(participantId)[0] = participantTotals(participantId)[0].add(amount);
+        }
+
+        void addOwed(UUID participantId, BigDecimal amount) {
+            participantTotals(participantId)[1] = participantTotals(participantId)[1].add(amount);
+        }
+
+        private BigDecimal[] participantTotals(UUID participantId) {
+            return totals.computeIfAbsent(participantId, id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        }
+
+        void fail(int lineNumber, String message, int maxReportedErrors) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(ExpenseImportErrorDTO.builder()
+                        .lineNumber(lineNumber)
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields may contain commas, doubled quotes
+     * and line breaks. Records are produced one at a time from the reader.
+     */
+    private static final class CsvRecordReader {
+
+        private final BufferedReader reader;
+        private int line = 1;
+        private int recordLine;
+        private boolean eof;
+
+        CsvRecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        int recordLine() {
+            return recordLine;
+        }
+
+        List<String> next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+
+            int ch;
+            while ((ch = reader.read()) != -1) {
+                any = true;
+                char c = (char) ch;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int peek = reader.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (peek != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append(c);
+                }
+            }
+
+            eof = true;
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
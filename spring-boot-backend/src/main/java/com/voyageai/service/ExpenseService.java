@@ -1,7 +1,9 @@
 package com.voyageai.service;
 
+import com.voyageai.dto.event.TripEventType;
 import com.voyageai.dto.expense.*;
 import com.voyageai.entity.*;
+import com.voyageai.exception.BadRequestException;
 import com.voyageai.exception.ForbiddenException;
 import com.voyageai.exception.ResourceNotFoundException;
 import com.voyageai.repository.*;
@@ -12,6 +14,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,7 +29,10 @@ public class ExpenseService {
     private final ItineraryRepository itineraryRepository;
     private final TripParticipantRepository participantRepository;
     private final SettlementRepository settlementRepository;
+    private final FxRateService fxRateService;
+    private final TripEventPublisher tripEventPublisher;
 
+    @Transactional(readOnly = true)
     public List<ExpenseDTO> getExpensesByItinerary(UUID itineraryId, User user) {
         validateAccess(itineraryId, user);
         return expenseRepository.findByItineraryIdOrderByDateDesc(itineraryId)
@@ -34,6 +41,7 @@ public class ExpenseService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public ExpenseDTO getExpense(UUID expenseId, User user) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Expense not found"));
@@ -56,7 +64,7 @@ public class ExpenseService {
                 .itinerary(itinerary)
                 .paidByParticipant(paidBy)
                 .amount(request.getAmount())
-                .currency(request.getCurrency())
+                .currency(resolveCurrency(request.getCurrency()))
                 .category(request.getCategory())
                 .description(request.getDescription())
                 .date(request.getDate())
@@ -90,8 +98,7 @@ public class ExpenseService {
         } else {
             // Equal split among all participants
             List<TripParticipant> participants = participantRepository.findByItineraryId(itineraryId);
-            BigDecimal splitAmount = request.getAmount().divide(
-                    BigDecimal.valueOf(participants.size()), 2, RoundingMode.HALF_UP);
+            BigDecimal splitAmount = equalShare(request.getAmount(), participants.size());
 
             for (TripParticipant participant : participants) {
                 ExpenseSplit split = ExpenseSplit.builder()
@@ -106,6 +113,7 @@ public class ExpenseService {
             }
         }
 
+        tripEventPublisher.publish(itineraryId, TripEventType.EXPENSE_CREATED, expense.getId());
         log.info("Expense created: {} for itinerary: {}", expense.getId(), itineraryId);
         return mapToDTO(expense);
     }
@@ -143,7 +151,7 @@ public class ExpenseService {
             expense.setAmount(request.getAmount());
         }
         if (request.getCurrency() != null) {
-            expense.setCurrency(request.getCurrency());
+            expense.setCurrency(resolveCurrency(request.getCurrency()));
         }
         if (request.getCategory() != null) {
             expense.setCategory(request.getCategory());
@@ -189,6 +197,7 @@ public class ExpenseService {
         }
 
         expense = expenseRepository.save(expense);
+        tripEventPublisher.publish(expense.getItinerary().getId(), TripEventType.EXPENSE_UPDATED, expenseId);
         log.info("Expense updated: {}", expenseId);
         return mapToDTO(expense);
     }
@@ -216,42 +225,34 @@ public class ExpenseService {
         expenseSplitRepository.deleteByExpenseId(expenseId);
         
         expenseRepository.delete(expense);
+        tripEventPublisher.publish(expense.getItinerary().getId(), TripEventType.EXPENSE_DELETED, expenseId);
         log.info("Expense deleted: {}", expenseId);
     }
 
+    @Transactional(readOnly = true)
     public ExpenseSummaryDTO getExpenseSummary(UUID itineraryId, User user) {
         validateAccess(itineraryId, user);
 
-        BigDecimal total = expenseRepository.getTotalExpenses(itineraryId);
-        List<Object[]> byCategory = expenseRepository.getExpensesByCategory(itineraryId);
-        List<TripParticipant> participants = participantRepository.findByItineraryId(itineraryId);
+        Ledger ledger = buildLedger(itineraryId);
 
         Map<String, BigDecimal> categoryBreakdown = new HashMap<>();
-        for (Object[] row : byCategory) {
-            categoryBreakdown.put((String) row[0], (BigDecimal) row[1]);
-        }
-
-        List<ParticipantBalanceDTO> balances = participants.stream()
-                .map(p -> ParticipantBalanceDTO.builder()
-                        .participantId(p.getId())
-                        .participantName(p.getName())
-                        .totalPaid(p.getTotalPaid())
-                        .totalOwed(p.getTotalOwed())
-                        .balance(p.getTotalPaid().subtract(p.getTotalOwed()))
-                        .build())
-                .collect(Collectors.toList());
+        ledger.categoryTotals().forEach((category, total) ->
+                categoryBreakdown.put(category, FxRateService.fromMinorUnits(total, ledger.currency())));
 
         return ExpenseSummaryDTO.builder()
                 .itineraryId(itineraryId)
-                .totalExpenses(total != null ? total : BigDecimal.ZERO)
-                .currency("INR")
-                .expenseCount(expenseRepository.findByItineraryIdOrderByDateDesc(itineraryId).size())
+                .totalExpenses(FxRateService.fromMinorUnits(ledger.totalExpenses(), ledger.currency()))
+                .currency(ledger.currency())
+                .expenseCount(ledger.expenseCount())
                 .expensesByCategory(categoryBreakdown)
-                .participantBalances(balances)
+                .participantBalances(mapBalances(ledger))
+                .settlementPlan(planSettlements(ledger))
+                .excludedCurrencies(ledger.excludedCurrencies())
                 .build();
     }
 
     // Settlements
+    @Transactional(readOnly = true)
     public List<SettlementDTO> getSettlements(UUID itineraryId, User user) {
         validateAccess(itineraryId, user);
         return settlementRepository.findByItineraryIdOrderBySettledAtDesc(itineraryId)
@@ -277,7 +278,7 @@ public class ExpenseService {
                 .fromParticipant(from)
                 .toParticipant(to)
                 .amount(request.getAmount())
-                .currency(request.getCurrency() != null ? request.getCurrency() : "USD")
+                .currency(request.getCurrency() != null ? resolveCurrency(request.getCurrency()) : itinerary.getBaseCurrency())
                 .notes(request.getNotes())
                 .build();
 
@@ -289,6 +290,7 @@ public class ExpenseService {
         participantRepository.save(from);
         participantRepository.save(to);
 
+        tripEventPublisher.publish(itineraryId, TripEventType.SETTLEMENT_CREATED, settlement.getId());
         log.info("Settlement created: {} for itinerary: {}", settlement.getId(), itineraryId);
         return mapSettlementToDTO(settlement);
     }
@@ -310,26 +312,31 @@ public class ExpenseService {
         participantRepository.save(to);
 
         settlementRepository.delete(settlement);
+        tripEventPublisher.publish(settlement.getItinerary().getId(), TripEventType.SETTLEMENT_DELETED, settlementId);
         log.info("Settlement deleted: {}", settlementId);
     }
 
+    @Transactional(readOnly = true)
     public List<ParticipantBalanceDTO> calculateBalances(UUID itineraryId, User user) {
         validateAccess(itineraryId, user);
-        
-        List<TripParticipant> participants = participantRepository.findByItineraryId(itineraryId);
-        
-        return participants.stream()
-                .map(p -> ParticipantBalanceDTO.builder()
-                        .participantId(p.getId())
-                        .participantName(p.getName())
-                        .totalPaid(p.getTotalPaid())
-                        .totalOwed(p.getTotalOwed())
-                        .balance(p.getTotalPaid().subtract(p.getTotalOwed()))
-                        .build())
-                .collect(Collectors.toList());
+        return mapBalances(buildLedger(itineraryId));
     }
 
     // Helper methods
+
+    // Summaries convert every row, so a currency without rates would break them for the whole itinerary
+    private String resolveCurrency(String requested) {
+        String currency = requested.trim().toUpperCase();
+        if (!fxRateService.isSupported(currency)) {
+            throw new BadRequestException("Unsupported currency: " + currency);
+        }
+        return currency;
+    }
+
+    static BigDecimal equalShare(BigDecimal amount, int participants) {
+        return amount.divide(BigDecimal.valueOf(participants), 2, RoundingMode.HALF_UP);
+    }
+
     private void validateAccess(UUID itineraryId, User user) {
         if (!itineraryRepository.isOwner(itineraryId, user.getId()) &&
             !itineraryRepository.isParticipant(itineraryId, user.getId())) {
@@ -343,6 +350,159 @@ public class ExpenseService {
         }
     }
 
+    /**
+     * Recompute totals from source rows with every amount converted into the
+     * itinerary's base currency. Settlements follow the same convention as the
+     * stored totals: the payer's paid increases and the receiver's owed decreases.
+     */
+    private Ledger buildLedger(UUID itineraryId) {
+        Itinerary itinerary = itineraryRepository.findById(itineraryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Itinerary not found"));
+        String currency = itinerary.getBaseCurrency();
+
+        Map<UUID, long[]> totals = new LinkedHashMap<>();
+        Map<UUID, String> names = new HashMap<>();
+        for (TripParticipant participant : participantRepository.findByItineraryId(itineraryId)) {
+            totals.put(participant.getId(), new long[2]);
+            names.put(participant.getId(), participant.getName());
+        }
+
+        Set<String> excludedCurrencies = new TreeSet<>();
+
+        List<Object[]> expenseRows = expenseRepository.findLedgerRowsByItineraryId(itineraryId);
+        FxRateService.Conversion expenses = convertColumn(expenseRows, 1, 2, 3, currency);
+        long[] expenseAmounts = expenses.amounts();
+        long totalExpenses = 0;
+        Map<String, Long> categoryTotals = new HashMap<>();
+        for (int i = 0; i < expenseAmounts.length; i++) {
+            if (expenses.skipped().get(i)) {
+                continue;
+            }
+            Object[] row = expenseRows.get(i);
+            totalExpenses += expenseAmounts[i];
+            categoryTotals.merge((String) row[4], expenseAmounts[i], Long::sum);
+            addTo(totals, (UUID) row[0], 0, expenseAmounts[i]);
+        }
+        excludedCurrencies.addAll(expenses.missingCurrencies());
+
+        // Splits of a skipped expense share its currency, so they are skipped with it
+        List<Object[]> splitRows = expenseSplitRepository.findLedgerRowsByItineraryId(itineraryId);
+        FxRateService.Conversion splits = convertColumn(splitRows, 1, 2, 3, currency);
+        for (int i = 0; i < splitRows.size(); i++) {
+            addTo(totals, (UUID) splitRows.get(i)[0], 1, splits.amounts()[i]);
+        }
+        excludedCurrencies.addAll(splits.missingCurrencies());
+
+        List<Object[]> settlementRows = settlementRepository.findLedgerRowsByItineraryId(itineraryId);
+        FxRateService.Conversion settlements = convertColumn(settlementRows, 2, 3, 4, currency);
+        for (int i = 0; i < settlementRows.size(); i++) {
+            Object[] row = settlementRows.get(i);
+            addTo(totals, (UUID) row[0], 0, settlements.amounts()[i]);
+            addTo(totals, (UUID) row[1], 1, -settlements.amounts()[i]);
+        }
+        excludedCurrencies.addAll(settlements.missingCurrencies());
+
+        int expenseCount = expenseRows.size() - expenses.skipped().cardinality();
+        if (!excludedCurrencies.isEmpty()) {
+            log.warn("Itinerary {} has rows in currencies without FX rates, left out of its totals: {}",
+                    itineraryId, excludedCurrencies);
+        }
+        return new Ledger(currency, expenseCount, totalExpenses, categoryTotals, totals, names, excludedCurrencies);
+    }
+
+    private FxRateService.Conversion convertColumn(List<Object[]> rows, int amountIdx, int currencyIdx, int dateIdx, String targetCurrency) {
+        int size = rows.size();
+        long[] amounts = new long[size];
+        String[] currencies = new String[size];
+        int[] epochDays = new int[size];
+        for (int i = 0; i < size; i++) {
+            Object[] row = rows.get(i);
+            currencies[i] = (String) row[currencyIdx];
+            amounts[i] = FxRateService.toMinorUnits((BigDecimal) row[amountIdx], currencies[i]);
+            Object date = row[dateIdx];
+            epochDays[i] = (int) (date instanceof OffsetDateTime odt
+                    ? odt.toLocalDate().toEpochDay()
+                    : ((LocalDate) date).toEpochDay());
+        }
+        return fxRateService.convert(amounts, currencies, epochDays, targetCurrency);
+    }
+
+    private void addTo(Map<UUID, long[]> totals, UUID participantId, int column, long amount) {
+        long[] participantTotals = totals.get(participantId);
+        if (participantTotals != null) {
+            participantTotals[column] += amount;
+        }
+    }
+
+    private List<ParticipantBalanceDTO> mapBalances(Ledger ledger) {
+        List<ParticipantBalanceDTO> balances = new ArrayList<>();
+        ledger.totals().forEach((participantId, t) -> balances.add(ParticipantBalanceDTO.builder()
+                .participantId(participantId)
+                .participantName(ledger.names().get(participantId))
+                .totalPaid(FxRateService.fromMinorUnits(t[0], ledger.currency()))
+                .totalOwed(FxRateService.fromMinorUnits(t[1], ledger.currency()))
+                .balance(FxRateService.fromMinorUnits(t[0] - t[1], ledger.currency()))
+                .currency(ledger.currency())
+                .build()));
+        return balances;
+    }
+
+    /**
+     * Greedy plan: repeatedly match the largest debtor with the largest creditor
+     */
+    private List<SuggestedSettlementDTO> planSettlements(Ledger ledger) {
+        List<Map.Entry<UUID, Long>> creditors = new ArrayList<>();
+        List<Map.Entry<UUID, Long>> debtors = new ArrayList<>();
+        ledger.totals().forEach((participantId, t) -> {
+            long balance = t[0] - t[1];
+            if (balance > 0) {
+                creditors.add(new AbstractMap.SimpleEntry<>(participantId, balance));
+            } else if (balance < 0) {
+                debtors.add(new AbstractMap.SimpleEntry<>(participantId, -balance));
+            }
+        });
+        creditors.sort(Map.Entry.<UUID, Long>comparingByValue().reversed());
+        debtors.sort(Map.Entry.<UUID, Long>comparingByValue().reversed());
+
+        List<SuggestedSettlementDTO> plan = new ArrayList<>();
+        int c = 0;
+        int d = 0;
+        while (c < creditors.size() && d < debtors.size()) {
+            Map.Entry<UUID, Long> creditor = creditors.get(c);
+            Map.Entry<UUID, Long> debtor = debtors.get(d);
+            long amount = Math.min(creditor.getValue(), debtor.getValue());
+
+            plan.add(SuggestedSettlementDTO.builder()
+                    .fromParticipantId(debtor.getKey())
+                    .fromParticipantName(ledger.names().get(debtor.getKey()))
+                    .toParticipantId(creditor.getKey())
+                    .toParticipantName(ledger.names().get(creditor.getKey()))
+                    .amount(FxRateService.fromMinorUnits(amount, ledger.currency()))
+                    .currency(ledger.currency())
+                    .build());
+
+            creditor.setValue(creditor.getValue() - amount);
+            debtor.setValue(debtor.getValue() - amount);
+            if (creditor.getValue() == 0) {
+                c++;
+            }
+            if (debtor.getValue() == 0) {
+                d++;
+            }
+        }
+        return plan;
+    }
+
+    private record Ledger(
+            String currency,
+            int expenseCount,
+            long totalExpenses,
+            Map<String, Long> categoryTotals,
+            Map<UUID, long[]> totals,
+            Map<UUID, String> names,
+            Set<String> excludedCurrencies
+    ) {}
+
     private ExpenseDTO mapToDTO(Expense expense) {
         List<ExpenseSplitDTO> splits = expenseSplitRepository.findByExpenseId(expense.getId())
                 .stream()
@@ -0,0 +1,271 @@
+package com.voyageai.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageai.entity.User;
+import com.voyageai.exception.BadRequestException;
+import com.voyageai.exception.ForbiddenException;
+import com.voyageai.repository.ItineraryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.UUID;
+
+/**
+ * Streams expenses, splits and settlements straight from a forward-only JDBC
+ * cursor to the response. Nothing is hydrated into entities or collected in
+ * memory, so memory use is independent of the number of rows exported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_JSON = "json";
+
+    private static final String CSV_HEADER = "record_type,itinerary_id,itinerary_name,record_id,date,category,description," +
+            "amount,currency,from_participant,to_participant,split_amount,notes";
+
+    private static final String EXPENSES_SQL = """
+            SELECT e.itinerary_id, i.name AS itinerary_name, e.id, e.date, e.category, e.description,
+                   e.amount, e.currency, payer.name AS paid_by, sp.name AS split_participant, s.amount AS split_amount
+            FROM expenses e
+            JOIN itineraries i ON i.id = e.itinerary_id
+            JOIN trip_participants payer ON payer.id = e.paid_by_participant_id
+            LEFT JOIN expense_splits s ON s.expense_id = e.id
+            LEFT JOIN trip_participants sp ON sp.id = s.participant_id
+            WHERE %s
+            ORDER BY e.itinerary_id, e.date, e.id
+            """;
+
+    private static final String SETTLEMENTS_SQL = """
+            SELECT st.itinerary_id, i.name AS itinerary_name, st.id, st.settled_at, st.amount, st.currency,
+                   f.name AS from_participant, t.name AS to_participant, st.notes
+            FROM settlements st
+            JOIN itineraries i ON i.id = st.itinerary_id
+            JOIN trip_participants f ON f.id = st.from_participant_id
+            JOIN trip_participants t ON t.id = st.to_participant_id
+            WHERE %s
+            ORDER BY st.itinerary_id, st.settled_at, st.id
+            """;
+
+    private static final String ITINERARY_FILTER = "i.id = ?";
+
+    private static final String USER_FILTER = "i.id IN (SELECT id FROM itineraries WHERE user_id = ? " +
+            "UNION SELECT itinerary_id FROM trip_participants WHERE user_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ItineraryRepository itineraryRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${export.fetch-size:500}")
+    private int fetchSize;
+
+    public StreamingResponseBody exportItinerary(UUID itineraryId, String format, User user) {
+        if (!itineraryRepository.isOwner(itineraryId, user.getId()) &&
+            !itineraryRepository.isParticipant(itineraryId, user.getId())) {
+            throw new ForbiddenException("You don't have access to this itinerary");
+        }
+        return stream(format, ITINERARY_FILTER, new Object[]{itineraryId});
+    }
+
+    public StreamingResponseBody exportAllForUser(String format, User user) {
+        return stream(format, USER_FILTER, new Object[]{user.getId(), user.getId()});
+    }
+
+    private StreamingResponseBody stream(String format, String filter, Object[] args) {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_JSON.equals(format)) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        return outputStream -> transaction.executeWithoutResult(status -> {
+            try {
+                if (FORMAT_CSV.equals(format)) {
+                    writeCsv(outputStream, filter, args);
+                } else {
+                    writeJson(outputStream, filter, args);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeCsv(OutputStream outputStream, String filter, Object[] args) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        query(EXPENSES_SQL, filter, args, rs -> writeCsvRow(writer,
+                "expense",
+                rs.getString("itinerary_id"),
+                rs.getString("itinerary_name"),
+                rs.getString("id"),
+                rs.getString("date"),
+                rs.getString("category"),
+                rs.getString("description"),
+                rs.getString("amount"),
+                rs.getString("currency"),
+                rs.getString("paid_by"),
+                rs.getString("split_participant"),
+                rs.getString("split_amount"),
+                null));
+
+        query(SETTLEMENTS_SQL, filter, args, rs -> writeCsvRow(writer,
+                "settlement",
+                rs.getString("itinerary_id"),
+                rs.getString("itinerary_name"),
+                rs.getString("id"),
+                rs.getString("settled_at"),
+                null,
+                null,
+                rs.getString("amount"),
+                rs.getString("currency"),
+                rs.getString("from_participant"),
+                rs.getString("to_participant"),
+                null,
+                rs.getString("notes")));
+
+        writer.flush();
+    }
+
+    /**
+     * Writes {"expenses": [...], "settlements": [...]}. Split rows arrive ordered by
+     * expense, so each expense object is closed when the next expense id appears.
+     */
+    private void writeJson(OutputStream outputStream, String filter, Object[] args) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+        json.writeStartObject();
+
+        json.writeArrayFieldStart("expenses");
+        String[] currentExpense = {null};
+        query(EXPENSES_SQL, filter, args, rs -> {
+            try {
+                String expenseId = rs.getString("id");
+                if (!expenseId.equals(currentExpense[0])) {
+                    if (currentExpense[0] != null) {
+                        json.writeEndArray();
+                        json.writeEndObject();
+                    }
+                    currentExpense[0] = expenseId;
+                    json.writeStartObject();
+                    json.writeStringField("id", expenseId);
+                    json.writeStringField("itineraryId", rs.getString("itinerary_id"));
+                    json.writeStringField("itineraryName", rs.getString("itinerary_name"));
+                    json.writeStringField("date", rs.getString("date"));
+                    json.writeStringField("category", rs.getString("category"));
+                    json.writeStringField("description", rs.getString("description"));
+                    json.writeNumberField("amount", rs.getBigDecimal("amount"));
+                    json.writeStringField("currency", rs.getString("currency"));
+                    json.writeStringField("paidBy", rs.getString("paid_by"));
+                    json.writeArrayFieldStart("splits");
+                }
+                if (rs.getString("split_participant") != null) {
+                    json.writeStartObject();
+                    json.writeStringField("participant", rs.getString("split_participant"));
+                    json.writeNumberField("amount", rs.getBigDecimal("split_amount"));
+                    json.writeEndObject();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (currentExpense[0] != null) {
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+
+        json.writeArrayFieldStart("settlements");
+        query(SETTLEMENTS_SQL, filter, args, rs -> {
+            try {
+                json.writeStartObject();
+                json.writeStringField("id", rs.getString("id"));
+                json.writeStringField("itineraryId", rs.getString("itinerary_id"));
+                json.writeStringField("itineraryName", rs.getString("itinerary_name"));
+                json.writeStringField("settledAt", rs.getString("settled_at"));
+                json.writeNumberField("amount", rs.getBigDecimal("amount"));
+                json.writeStringField("currency", rs.getString("currency"));
+                json.writeStringField("from", rs.getString("from_participant"));
+                json.writeStringField("to", rs.getString("to_participant"));
+                json.writeStringField("notes", rs.getString("notes"));
+                json.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        json.writeEndArray();
+
+        json.writeEndObject();
+        json.flush();
+    }
+
+    private void query(String sql, String filter, Object[] args, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            var statement = con.prepareStatement(sql.formatted(filter), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, handler);
+    }
+
+    private void writeCsvRow(Writer writer, String... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(writer, values[i]);
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        // Prevent spreadsheet formula injection from user-entered text
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '@' || (first == '-' && !isNumeric(value))) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    private static boolean isNumeric(String value) {
+        for (int i = 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && c != '.') {
+                return false;
+            }
+        }
+        return value.length() > 1;
+    }
+}
@@ -0,0 +1,75 @@
+package com.voyageai.service;
+
+import com.voyageai.entity.FxRate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads FX rates from a CSV file with the header currency,effective_date,rate_per_usd
+ */
+@Component
+@ConditionalOnProperty(name = "fx.provider", havingValue = "file", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class FileFxRateProvider implements FxRateProvider {
+
+    private final ResourceLoader resourceLoader;
+
+    @Value("${fx.rates-file:classpath:fx/rates.csv}")
+    private String ratesFile;
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public List<FxRate> fetchRates() {
+        Resource resource = resourceLoader.getResource(ratesFile);
+        if (!resource.exists()) {
+            log.warn("FX rates file not found: {}", ratesFile);
+            return List.of();
+        }
+
+        List<FxRate> rates = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (lineNumber == 1 || line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(",");
+                if (columns.length != 3) {
+                    log.warn("Skipping malformed FX rate on line {}: {}", lineNumber, line);
+                    continue;
+                }
+                rates.add(FxRate.builder()
+                        .currency(columns[0].trim().toUpperCase())
+                        .effectiveDate(LocalDate.parse(columns[1].trim()))
+                        .ratePerUsd(new BigDecimal(columns[2].trim()))
+                        .build());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read FX rates file: " + ratesFile, e);
+        }
+        return rates;
+    }
+}
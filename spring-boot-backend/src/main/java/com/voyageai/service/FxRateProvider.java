@@ -0,0 +1,16 @@
+package com.voyageai.service;
+
+import com.voyageai.entity.FxRate;
+
+import java.util.List;
+
+/**
+ * Source of FX rates imported into the fx_rates table on startup.
+ * Rates are expressed as units of currency per 1 USD.
+ */
+public interface FxRateProvider {
+
+    String getName();
+
+    List<FxRate> fetchRates();
+}
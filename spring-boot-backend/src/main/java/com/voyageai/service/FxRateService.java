@@ -0,0 +1,190 @@
+package com.voyageai.service;
+
+import com.voyageai.entity.FxRate;
+import com.voyageai.repository.FxRateRepository;
+import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Holds every known FX rate in memory, indexed per currency by effective date,
+ * and converts whole columns of amounts in one pass. The index is loaded from
+ * the fx_rates table at startup and reloaded after every provider import.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FxRateService {
+
+    public static final String PIVOT_CURRENCY = "USD";
+
+    private final FxRateRepository fxRateRepository;
+    private final List<FxRateProvider> providers;
+
+    private volatile Map<String, RateSeries> rateIndex = Map.of();
+
+    // Rates imported by an earlier run are usable before this node's own import finishes
+    @PostConstruct
+    void loadIndex() {
+        refresh();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${fx.refresh-interval-ms:3600000}",
+            fixedDelayString = "${fx.refresh-interval-ms:3600000}")
+    @Transactional
+    public void importRates() {
+        for (FxRateProvider provider : providers) {
+            try {
+                List<FxRate> rates = provider.fetchRates();
+                for (FxRate rate : rates) {
+                    fxRateRepository.upsert(rate.getCurrency(), rate.getEffectiveDate(), rate.getRatePerUsd());
+                }
+                log.info("Imported {} FX rates from provider: {}", rates.size(), provider.getName());
+            } catch (RuntimeException e) {
+                log.warn("Failed to import FX rates from provider {}, keeping the current rates: {}",
+                        provider.getName(), e.getMessage());
+            }
+        }
+        refresh();
+    }
+
+    /**
+     * Rebuild the in-memory index from the fx_rates table
+     */
+    public void refresh() {
+        Map<String, List<FxRate>> byCurrency = new HashMap<>();
+        for (FxRate rate : fxRateRepository.findAllByOrderByCurrencyAscEffectiveDateAsc()) {
+            byCurrency.computeIfAbsent(rate.getCurrency(), c -> new ArrayList<>()).add(rate);
+        }
+
+        Map<String, RateSeries> index = new HashMap<>();
+        byCurrency.forEach((currency, rates) -> index.put(currency, RateSeries.of(rates)));
+        rateIndex = Map.copyOf(index);
+        log.info("FX rate index loaded for {} currencies", index.size());
+    }
+
+    public boolean isSupported(String currency) {
+        return currency != null && rateIndex.containsKey(currency.toUpperCase());
+    }
+
+    /**
+     * Convert amounts given in each row's minor units into minor units of the target
+     * currency. Rows are looked up against the index snapshot taken at the start of
+     * the call, and consecutive rows sharing a currency and date reuse the same factor.
+     * Rows in a currency without rates (stored before it was validated, or dropped
+     * from the provider since) convert to zero and are flagged in the result rather
+     * than failing the whole column.
+     */
+    public Conversion convert(long[] minorUnits, String[] currencies, int[] epochDays, String targetCurrency) {
+        Map<String, RateSeries> index = rateIndex;
+        String target = targetCurrency.toUpperCase();
+        RateSeries targetSeries = index.get(target);
+        int targetDigits = fractionDigits(target);
+
+        long[] converted = new long[minorUnits.length];
+        BitSet skipped = new BitSet(minorUnits.length);
+        Set<String> missing = new TreeSet<>();
+        String lastCurrency = null;
+        RateSeries source = null;
+        boolean sameCurrency = false;
+        double scale = 1.0;
+        int lastDay = Integer.MIN_VALUE;
+        double factor = 1.0;
+
+        for (int i = 0; i < minorUnits.length; i++) {
+            String currency = currencies[i] != null ? currencies[i].toUpperCase() : PIVOT_CURRENCY;
+            if (!currency.equals(lastCurrency)) {
+                source = index.get(currency);
+                sameCurrency = currency.equals(target);
+                scale = Math.pow(10, targetDigits - fractionDigits(currency));
+                lastCurrency = currency;
+                lastDay = Integer.MIN_VALUE;
+            }
+            if (!sameCurrency && (source == null || targetSeries == null)) {
+                skipped.set(i);
+                missing.add(source == null ? currency : target);
+                continue;
+            }
+            if (epochDays[i] != lastDay) {
+                lastDay = epochDays[i];
+                factor = sameCurrency ? 1.0 : targetSeries.rateAt(lastDay) / source.rateAt(lastDay) * scale;
+            }
+            converted[i] = Math.round(minorUnits[i] * factor);
+        }
+        return new Conversion(converted, skipped, missing);
+    }
+
+    /**
+     * Converts a stored amount into the currency's minor units (cents, or whole yen).
+     */
+    public static long toMinorUnits(BigDecimal amount, String currency) {
+        return amount.setScale(fractionDigits(currency), RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits, String currency) {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currency));
+    }
+
+    // Falls back to two places for codes the JDK does not know and for those without minor units (XAU)
+    private static int fractionDigits(String currency) {
+        try {
+            int digits = Currency.getInstance(currency != null ? currency.toUpperCase() : PIVOT_CURRENCY)
+                    .getDefaultFractionDigits();
+            return digits >= 0 ? digits : 2;
+        } catch (IllegalArgumentException e) {
+            return 2;
+        }
+    }
+
+    /**
+     * Converted amounts, with the rows that could not be converted and the
+     * currencies that lacked rates.
+     */
+    public record Conversion(long[] amounts, BitSet skipped, Set<String> missingCurrencies) {
+    }
+
+    /**
+     * Rates for one currency, sorted by the epoch day they take effect
+     */
+    private static final class RateSeries {
+
+        private final int[] effectiveDays;
+        private final double[] ratesPerUsd;
+
+        private RateSeries(int[] effectiveDays, double[] ratesPerUsd) {
+            this.effectiveDays = effectiveDays;
+            this.ratesPerUsd = ratesPerUsd;
+        }
+
+        static RateSeries of(List<FxRate> sortedRates) {
+            int[] days = new int[sortedRates.size()];
+            double[] rates = new double[sortedRates.size()];
+            for (int i = 0; i < days.length; i++) {
+                days[i] = (int) sortedRates.get(i).getEffectiveDate().toEpochDay();
+                rates[i] = sortedRates.get(i).getRatePerUsd().doubleValue();
+            }
+            return new RateSeries(days, rates);
+        }
+
+        /**
+         * Rate in effect on the given day; days before the first entry use the earliest rate
+         */
+        double rateAt(int epochDay) {
+            int idx = Arrays.binarySearch(effectiveDays, epochDay);
+            if (idx < 0) {
+                idx = Math.max(-idx - 2, 0);
+            }
+            return ratesPerUsd[idx];
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.voyageai.service;
 
+import com.voyageai.dto.event.TripEventType;
 import com.voyageai.dto.itinerary.*;
 import com.voyageai.entity.*;
+import com.voyageai.exception.BadRequestException;
 import com.voyageai.exception.ForbiddenException;
 import com.voyageai.exception.ResourceNotFoundException;
 import com.voyageai.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,7 +30,14 @@ public class ItineraryService {
     private final ActivityRepository activityRepository;
     private final TripParticipantRepository participantRepository;
     private final AIService aiService;
+    private final FxRateService fxRateService;
+    private final TripEventPublisher tripEventPublisher;
+    private final DocumentService documentService;
 
+    @Value("${fx.default-base-currency:USD}")
+    private String defaultBaseCurrency;
+
+    @Transactional(readOnly = true)
     public List<ItineraryDTO> getUserItineraries(User user) {
         log.info("Fetching itineraries for user: {}", user.getId());
         return itineraryRepository.findByUserIdOrParticipantUserId(user.getId())
@@ -36,6 +46,7 @@ public class ItineraryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public ItineraryDTO getItinerary(UUID id, User user) {
         Itinerary itinerary = findItineraryWithAccess(id, user);
         return mapToDetailedDTO(itinerary);
@@ -52,6 +63,7 @@ public class ItineraryService {
                 .startDate(request.getStartDate())
                 .endDate(request.getEndDate())
                 .travelType(request.getTravelType())
+                .baseCurrency(resolveBaseCurrency(request.getBaseCurrency()))
                 .status("planning")
                 .build();
 
@@ -96,8 +108,12 @@ public class ItineraryService {
         if (request.getImageUrl() != null) {
             itinerary.setImageUrl(request.getImageUrl());
         }
+        if (request.getBaseCurrency() != null) {
+            itinerary.setBaseCurrency(resolveBaseCurrency(request.getBaseCurrency()));
+        }
 
         itinerary = itineraryRepository.save(itinerary);
+        tripEventPublisher.publish(id, TripEventType.ITINERARY_UPDATED, id);
         return mapToDTO(itinerary);
     }
 
@@ -105,6 +121,7 @@ public class ItineraryService {
     public void deleteItinerary(UUID id, User user) {
         Itinerary itinerary = findItineraryAsOwner(id, user);
         log.info("Deleting itinerary: {}", id);
+        documentService.releaseItineraryDocuments(id);
         itineraryRepository.delete(itinerary);
     }
 
@@ -120,6 +137,7 @@ public class ItineraryService {
                 .endDate(request.getEndDate())
                 .travelType(request.getTravelType())
                 .imageUrl(request.getImageUrl())
+                .baseCurrency(resolveBaseCurrency(request.getBaseCurrency()))
                 .status("planning")
                 .build();
 
@@ -220,6 +238,7 @@ public class ItineraryService {
         }
 
         itineraryDayRepository.save(existingDay);
+        tripEventPublisher.publish(itineraryId, TripEventType.DAY_REGENERATED, existingDay.getId());
         log.info("Day {} regenerated successfully", request.getDayNumber());
 
         return regeneratedDay;
@@ -249,6 +268,14 @@ public class ItineraryService {
         return itinerary;
     }
 
+    private String resolveBaseCurrency(String requested) {
+        String currency = requested != null ? requested.toUpperCase() : defaultBaseCurrency;
+        if (!fxRateService.isSupported(currency)) {
+            throw new BadRequestException("Unsupported base currency: " + currency);
+        }
+        return currency;
+    }
+
     private ItineraryDTO mapToDTO(Itinerary itinerary) {
         return ItineraryDTO.builder()
                 .id(itinerary.getId())
@@ -259,6 +286,7 @@ public class ItineraryService {
                 .status(itinerary.getStatus())
                 .travelType(itinerary.getTravelType())
                 .imageUrl(itinerary.getImageUrl())
+                .baseCurrency(itinerary.getBaseCurrency())
                 .createdAt(itinerary.getCreatedAt())
                 .updatedAt(itinerary.getUpdatedAt())
                 .build();
@@ -0,0 +1,182 @@
+package com.voyageai.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores objects as files under storage.local.root, for development, tests and
+ * on-prem installs without S3. Range reads use FileChannel.transferTo, which the
+ * JDK maps to sendfile when the target is a socket. The content type is kept in
+ * a sidecar file next to the object.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+@Slf4j
+public class LocalFilesystemStorageBackend implements StorageBackend {
+
+    private static final String CONTENT_TYPE_SUFFIX = ".content-type";
+
+    @Value("${storage.local.root:${java.io.tmpdir}/voyage-storage}")
+    private String rootDir;
+
+    private Path root;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Files.createDirectories(Path.of(rootDir)).toRealPath();
+        log.info("Local storage backend at {}", root);
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public void put(String key, String contentType, InputStream content, long size) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            long written = Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            if (written != size) {
+                throw new IOException("Upload stream ended after " + written + " of " + size + " bytes");
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        if (contentType != null) {
+            Files.writeString(contentTypeFile(target), contentType);
+        }
+    }
+
+    @Override
+    public Optional<ObjectMetadata> head(String key) {
+        Path file = resolve(key);
+        try {
+            long size = Files.size(file);
+            Path typeFile = contentTypeFile(file);
+            String contentType = Files.exists(typeFile) ? Files.readString(typeFile) : null;
+            return Optional.of(new ObjectMetadata(size, contentType, null));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ)) {
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        Path file = resolve(key);
+        try {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(contentTypeFile(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Walks the tree under the prefix's directory; the continuation token is the
+     * last key returned. Adequate for the object counts of a local install.
+     */
+    @Override
+    public ListPage list(String prefix, String continuationToken, int limit) throws IOException {
+        int slash = prefix.lastIndexOf('/');
+        Path start = slash >= 0 ? resolve(prefix.substring(0, slash)) : root;
+        if (!Files.isDirectory(start)) {
+            return new ListPage(List.of(), null);
+        }
+
+        List<ObjectSummary> objects;
+        try (Stream<Path> files = Files.walk(start)) {
+            objects = files.filter(Files::isRegularFile)
+                    .filter(file -> !isInternal(file))
+                    .map(file -> root.relativize(file).toString().replace(File.separatorChar, '/'))
+                    .filter(key -> key.startsWith(prefix))
+                    .filter(key -> continuationToken == null || key.compareTo(continuationToken) > 0)
+                    .sorted()
+                    .limit(limit + 1L)
+                    .map(this::summarize)
+                    .flatMap(Optional::stream)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        if (objects.size() <= limit) {
+            return new ListPage(objects, null);
+        }
+        objects.remove(objects.size() - 1);
+        return new ListPage(objects, objects.get(objects.size() - 1).key());
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        Path file = resolve(key);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    private Optional<ObjectSummary> summarize(String key) {
+        try {
+            Path file = resolve(key);
+            return Optional.of(new ObjectSummary(key, Files.size(file), Files.getLastModifiedTime(file).toInstant()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isInternal(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(CONTENT_TYPE_SUFFIX) || name.startsWith(".upload-");
+    }
+
+    private Path resolve(String key) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root)) {
+            throw new IllegalArgumentException("Storage key escapes the storage root: " + key);
+        }
+        return file;
+    }
+
+    private static Path contentTypeFile(Path file) {
+        return file.resolveSibling(file.getFileName() + CONTENT_TYPE_SUFFIX);
+    }
+}
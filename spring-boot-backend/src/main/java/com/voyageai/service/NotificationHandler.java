@@ -0,0 +1,14 @@
+package com.voyageai.service;
+
+/**
+ * Receives the payloads sent with {@code pg_notify} on one channel. Every bean
+ * implementing it is registered with {@link PostgresNotificationListener}, which
+ * LISTENs on its channel and calls it on the listener thread, so handlers should
+ * return quickly and must not throw for a malformed payload.
+ */
+public interface NotificationHandler {
+
+    String channel();
+
+    void handleNotification(String payload);
+}
@@ -0,0 +1,29 @@
+package com.voyageai.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Extracts text and booking details from an uploaded document.
+ * Implementations are selected with the ocr.engine property.
+ */
+public interface OcrEngine {
+
+    String getName();
+
+    Result process(InputStream content, String contentType, String documentType) throws IOException;
+
+    record Result(
+            Double confidence,
+            String providerName,
+            String bookingReference,
+            BigDecimal amount,
+            String currency,
+            LocalDate eventDate,
+            Map<String, Object> extractedData
+    ) {
+    }
+}
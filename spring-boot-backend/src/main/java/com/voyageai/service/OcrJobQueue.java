@@ -0,0 +1,103 @@
+package com.voyageai.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persistent OCR work queue backed by the ocr_jobs table. Workers claim ready
+ * jobs with FOR UPDATE SKIP LOCKED, so any number of nodes can poll the same
+ * table without handing the same document to two workers.
+ */
+@Service
+@RequiredArgsConstructor
+public class OcrJobQueue {
+
+    private static final String ENQUEUE_SQL = """
+            INSERT INTO ocr_jobs (document_id) VALUES (?)
+            ON CONFLICT (document_id) DO UPDATE
+            SET status = 'queued', attempts = 0, next_attempt_at = NOW(), locked_by = NULL, locked_at = NULL,
+                last_error = NULL, updated_at = NOW()
+            """;
+
+    private static final String CLAIM_SQL = """
+            UPDATE ocr_jobs SET status = 'processing', attempts = attempts + 1, locked_by = ?, locked_at = NOW(), updated_at = NOW()
+            WHERE id IN (
+                SELECT id FROM ocr_jobs
+                WHERE status = 'queued' AND next_attempt_at <= NOW()
+                ORDER BY next_attempt_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id, document_id, attempts
+            """;
+
+    private static final String COMPLETE_SQL =
+            "UPDATE ocr_jobs SET status = 'completed', locked_by = NULL, locked_at = NULL, last_error = NULL, updated_at = NOW() WHERE id = ?";
+
+    private static final String RETRY_SQL = """
+            UPDATE ocr_jobs SET status = 'queued', next_attempt_at = NOW() + (? * INTERVAL '1 millisecond'),
+                locked_by = NULL, locked_at = NULL, last_error = ?, updated_at = NOW()
+            WHERE id = ?
+            """;
+
+    private static final String FAIL_SQL =
+            "UPDATE ocr_jobs SET status = 'failed', locked_by = NULL, locked_at = NULL, last_error = ?, updated_at = NOW() WHERE id = ?";
+
+    private static final String RECOVER_SQL = """
+            UPDATE ocr_jobs SET status = 'queued', locked_by = NULL, locked_at = NULL, updated_at = NOW()
+            WHERE status = 'processing' AND locked_at < NOW() - (? * INTERVAL '1 millisecond')
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${ocr.enabled:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a document for OCR on the caller's transaction, so the job only
+     * becomes visible once the document row itself has been committed.
+     */
+    public void enqueue(UUID documentId) {
+        if (enabled) {
+            jdbcTemplate.update(ENQUEUE_SQL, documentId);
+        }
+    }
+
+    public List<OcrJob> claim(String workerId, int limit) {
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new OcrJob(rs.getObject("id", UUID.class), rs.getObject("document_id", UUID.class), rs.getInt("attempts")),
+                workerId, limit);
+    }
+
+    public void complete(UUID jobId) {
+        jdbcTemplate.update(COMPLETE_SQL, jobId);
+    }
+
+    public void retry(UUID jobId, long delayMs, String error) {
+        jdbcTemplate.update(RETRY_SQL, delayMs, error, jobId);
+    }
+
+    public void fail(UUID jobId, String error) {
+        jdbcTemplate.update(FAIL_SQL, error, jobId);
+    }
+
+    /**
+     * Puts jobs back on the queue that have been held longer than the stale
+     * timeout, e.g. because the node processing them was killed mid-job.
+     */
+    public int recoverStale(long staleAfterMs) {
+        return jdbcTemplate.update(RECOVER_SQL, staleAfterMs);
+    }
+
+    public record OcrJob(UUID id, UUID documentId, int attempts) {
+    }
+}
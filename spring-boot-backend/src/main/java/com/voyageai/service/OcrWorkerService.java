@@ -0,0 +1,219 @@
+package com.voyageai.service;
+
+import com.voyageai.dto.event.TripEventType;
+import com.voyageai.entity.Document;
+import com.voyageai.repository.DocumentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Drains the OCR queue with a bounded worker pool. Each poll claims at most as
+ * many jobs as there are idle workers; a failed job is retried with exponential
+ * backoff until ocr.max-attempts, after which the document is marked failed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OcrWorkerService {
+
+    private final OcrJobQueue ocrJobQueue;
+    private final OcrEngine ocrEngine;
+    private final DocumentRepository documentRepository;
+    private final StorageBackend storageBackend;
+    private final TripEventPublisher tripEventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ocr.workers:2}")
+    private int workers;
+
+    @Value("${ocr.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${ocr.retry-base-delay-ms:5000}")
+    private long retryBaseDelayMs;
+
+    @Value("${ocr.retry-max-delay-ms:600000}")
+    private long retryMaxDelayMs;
+
+    @Value("${ocr.stale-after-ms:900000}")
+    private long staleAfterMs;
+
+    private final String workerId = ManagementFactory.getRuntimeMXBean().getName();
+    private volatile ExecutorService pool;
+    private volatile Semaphore idleWorkers;
+
+    @Scheduled(fixedDelayString = "${ocr.poll-interval-ms:2000}")
+    public void poll() {
+        if (!ocrJobQueue.isEnabled()) {
+            return;
+        }
+        ensurePool();
+
+        int idle = idleWorkers.availablePermits();
+        if (idle == 0) {
+            return;
+        }
+
+        List<OcrJobQueue.OcrJob> jobs = ocrJobQueue.claim(workerId, idle);
+        for (OcrJobQueue.OcrJob job : jobs) {
+            idleWorkers.acquireUninterruptibly();
+            pool.execute(() -> {
+                try {
+                    process(job);
+                } finally {
+                    idleWorkers.release();
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ocr.recovery-interval-ms:60000}")
+    public void recoverStaleJobs() {
+        if (!ocrJobQueue.isEnabled()) {
+            return;
+        }
+        int recovered = ocrJobQueue.recoverStale(staleAfterMs);
+        if (recovered > 0) {
+            log.warn("Re-queued {} stale OCR jobs", recovered);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            // Unfinished jobs stay in 'processing' and are re-queued by stale recovery
+            pool.shutdownNow();
+        }
+    }
+
+    private synchronized void ensurePool() {
+        if (pool == null) {
+            idleWorkers = new Semaphore(workers);
+            pool = Executors.newFixedThreadPool(workers, r -> {
+                Thread thread = new Thread(r, "ocr-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void process(OcrJobQueue.OcrJob job) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            DocumentSnapshot snapshot = transaction.execute(status -> documentRepository.findById(job.documentId())
+                    .map(document -> {
+                        if ("completed".equals(document.getOcrStatus())) {
+                            return null;
+                        }
+                        // Identical content may have finished OCR since this job was queued
+                        Document source = document.getContentHash() == null ? null : documentRepository
+                                .findFirstByContentHashAndOcrStatusOrderByUpdatedAtDesc(document.getContentHash(), "completed")
+                                .orElse(null);
+                        if (source != null) {
+                            DocumentService.copyOcrResult(source, document);
+                            tripEventPublisher.publish(document.getItinerary().getId(), TripEventType.OCR_COMPLETED, document.getId());
+                            return null;
+                        }
+                        document.setOcrStatus("processing");
+                        return new DocumentSnapshot(DocumentService.extractKeyFromUrl(document.getFileUrl()),
+                                document.getFileType(), document.getDocumentType());
+                    })
+                    .orElse(null));
+
+            if (snapshot == null) {
+                // Deleted, already has a result from the client, or reused one from identical content
+                ocrJobQueue.complete(job.id());
+                return;
+            }
+
+            OcrEngine.Result result;
+            try (InputStream content = storageBackend.open(snapshot.key())) {
+                result = ocrEngine.process(content, snapshot.contentType(), snapshot.documentType());
+            }
+
+            transaction.executeWithoutResult(status -> {
+                documentRepository.findById(job.documentId()).ifPresent(document -> {
+                    applyResult(document, result);
+                    tripEventPublisher.publish(document.getItinerary().getId(), TripEventType.OCR_COMPLETED, document.getId());
+                });
+                ocrJobQueue.complete(job.id());
+            });
+            meterRegistry.counter("voyage.ocr.jobs", "result", "completed").increment();
+            log.debug("OCR completed for document {} with {}", job.documentId(), ocrEngine.getName());
+        } catch (Exception e) {
+            handleFailure(job, transaction, e);
+        } finally {
+            sample.stop(meterRegistry.timer("voyage.ocr.duration", "engine", ocrEngine.getName()));
+        }
+    }
+
+    private void applyResult(Document document, OcrEngine.Result result) {
+        document.setOcrStatus("completed");
+        if (result.confidence() != null) {
+            document.setOcrConfidence(BigDecimal.valueOf(result.confidence()));
+        }
+        document.setExtractedData(result.extractedData());
+        // Keep values the user may already have entered when the engine found nothing
+        if (result.providerName() != null) {
+            document.setProviderName(result.providerName());
+        }
+        if (result.bookingReference() != null) {
+            document.setBookingReference(result.bookingReference());
+        }
+        if (result.amount() != null) {
+            document.setAmount(result.amount());
+            document.setCurrency(result.currency());
+        }
+        if (result.eventDate() != null) {
+            document.setEventDate(result.eventDate());
+        }
+    }
+
+    private void handleFailure(OcrJobQueue.OcrJob job, TransactionTemplate transaction, Exception e) {
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        try {
+            if (job.attempts() >= maxAttempts) {
+                log.warn("OCR failed permanently for document {} after {} attempts: {}", job.documentId(), job.attempts(), error);
+                transaction.executeWithoutResult(status -> {
+                    documentRepository.findById(job.documentId()).ifPresent(document -> document.setOcrStatus("failed"));
+                    ocrJobQueue.fail(job.id(), error);
+                });
+                meterRegistry.counter("voyage.ocr.jobs", "result", "failed").increment();
+            } else {
+                long delay = backoff(job.attempts());
+                log.info("OCR attempt {} failed for document {}, retrying in {} ms: {}", job.attempts(), job.documentId(), delay, error);
+                ocrJobQueue.retry(job.id(), delay, error);
+                meterRegistry.counter("voyage.ocr.jobs", "result", "retried").increment();
+            }
+        } catch (Exception updateError) {
+            // The job stays 'processing' and is picked up again by stale recovery
+            log.error("Failed to record OCR failure for job {}: {}", job.id(), updateError.getMessage());
+        }
+    }
+
+    private long backoff(int attempts) {
+        long delay = retryBaseDelayMs << Math.min(attempts - 1, 20);
+        delay = Math.min(delay, retryMaxDelayMs);
+        // Jitter so documents that failed together don't retry in lockstep
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private record DocumentSnapshot(String key, String contentType, String documentType) {
+    }
+}
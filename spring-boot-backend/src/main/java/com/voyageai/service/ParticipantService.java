@@ -1,5 +1,6 @@
 package com.voyageai.service;
 
+import com.voyageai.dto.event.TripEventType;
 import com.voyageai.dto.participant.*;
 import com.voyageai.entity.*;
 import com.voyageai.exception.BadRequestException;
@@ -23,7 +24,9 @@ public class ParticipantService {
     private final TripParticipantRepository participantRepository;
     private final ItineraryRepository itineraryRepository;
     private final UserRepository userRepository;
+    private final TripEventPublisher tripEventPublisher;
 
+    @Transactional(readOnly = true)
     public List<ParticipantDTO> getParticipants(UUID itineraryId, User user) {
         validateAccess(itineraryId, user);
         return participantRepository.findByItineraryId(itineraryId)
@@ -32,6 +35,7 @@ public class ParticipantService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public ParticipantDTO getParticipant(UUID participantId, User user) {
         TripParticipant participant = participantRepository.findById(participantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Participant not found"));
@@ -64,6 +68,7 @@ public class ParticipantService {
         }
 
         participant = participantRepository.save(participant);
+        tripEventPublisher.publish(itineraryId, TripEventType.PARTICIPANT_ADDED, participant.getId());
         log.info("Participant added: {} to itinerary: {}", participant.getId(), itineraryId);
         
         return mapToDTO(participant);
@@ -87,6 +92,7 @@ public class ParticipantService {
         }
 
         participant = participantRepository.save(participant);
+        tripEventPublisher.publish(participant.getItinerary().getId(), TripEventType.PARTICIPANT_UPDATED, participantId);
         return mapToDTO(participant);
     }
 
@@ -104,6 +110,7 @@ public class ParticipantService {
         }
 
         participantRepository.delete(participant);
+        tripEventPublisher.publish(participant.getItinerary().getId(), TripEventType.PARTICIPANT_REMOVED, participantId);
         log.info("Participant removed: {}", participantId);
     }
 
@@ -0,0 +1,128 @@
+package com.voyageai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Listens on the channels of every {@link NotificationHandler} over a dedicated
+ * connection (kept outside the pool so it never holds a Hikari slot) and hands
+ * each notification to the handler registered for its channel. Each node runs
+ * one listener, which gives cross-node fan-out without an external broker.
+ */
+@Service
+@Slf4j
+public class PostgresNotificationListener implements SmartLifecycle {
+
+    private final DataSourceProperties dataSourceProperties;
+    private final Map<String, NotificationHandler> handlers;
+
+    @Value("${events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${events.poll-timeout-ms:10000}")
+    private int pollTimeoutMs;
+
+    @Value("${events.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresNotificationListener(DataSourceProperties dataSourceProperties, List<NotificationHandler> handlers) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.handlers = handlers.stream().collect(Collectors.toMap(NotificationHandler::channel, Function.identity(),
+                (first, second) -> {
+                    throw new IllegalStateException("More than one handler registered for channel " + first.channel());
+                }));
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || handlers.isEmpty()) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "pg-notification-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+
+                try (Statement statement = connection.createStatement()) {
+                    for (String channel : handlers.keySet()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                log.info("Listening for notifications on channels: {}", handlers.keySet());
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification listener disconnected, retrying in {} ms: {}", reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(PGNotification notification) {
+        NotificationHandler handler = handlers.get(notification.getName());
+        if (handler == null) {
+            return;
+        }
+        try {
+            handler.handleNotification(notification.getParameter());
+        } catch (Exception e) {
+            // One bad payload must not drop the connection and the notifications queued behind it
+            log.warn("Failed to handle notification on channel {}: {}", notification.getName(), e.getMessage());
+        }
+    }
+}
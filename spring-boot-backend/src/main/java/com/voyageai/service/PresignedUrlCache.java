@@ -0,0 +1,97 @@
+package com.voyageai.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Caches presigned GET URLs per (object key, expiry) and hands out the same URL
+ * until it is within the refresh margin of expiring. Presigning is an HMAC chain
+ * over the canonical request, so re-signing every document on every listing is
+ * wasted CPU when the previous URL is still valid. Entries leave the cache once
+ * they reach the refresh margin, and the least recently used go first when it is
+ * full.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PresignedUrlCache {
+
+    private final S3Presigner s3Presigner;
+
+    @Value("${aws.s3.bucket}")
+    private String bucketName;
+
+    @Value("${documents.download.url-expiry-seconds:900}")
+    private long defaultExpirySeconds;
+
+    @Value("${documents.download.refresh-margin-seconds:120}")
+    private long refreshMarginSeconds;
+
+    @Value("${documents.download.cache-max-entries:20000}")
+    private int maxEntries;
+
+    private BoundedCache<CacheKey, PresignedUrl> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedCache<>(maxEntries);
+    }
+
+    public PresignedUrl get(String key) {
+        return get(key, Duration.ofSeconds(defaultExpirySeconds));
+    }
+
+    public PresignedUrl get(String key, Duration expiry) {
+        CacheKey cacheKey = new CacheKey(key, expiry.toSeconds());
+        PresignedUrl cached = cache.get(cacheKey, System.currentTimeMillis());
+        if (cached != null) {
+            return cached;
+        }
+
+        // Signed outside the cache lock; two concurrent misses just sign twice
+        PresignedUrl signed = sign(key, expiry);
+        // Cap the margin at half the lifetime so short expiries are still reused
+        Duration margin = Duration.ofSeconds(Math.min(refreshMarginSeconds, expiry.toSeconds() / 2));
+        cache.put(cacheKey, signed, signed.expiresAt().minus(margin).toEpochMilli());
+        return signed;
+    }
+
+    public void invalidate(String key) {
+        cache.removeIf((cacheKey, url) -> cacheKey.key().equals(key));
+    }
+
+    @Scheduled(fixedDelayString = "${documents.download.cache-purge-interval-ms:60000}")
+    public void purgeExpired() {
+        cache.purgeExpired(System.currentTimeMillis());
+    }
+
+    private PresignedUrl sign(String key, Duration expiry) {
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(expiry)
+                .getObjectRequest(GetObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .build())
+                .build();
+
+        PresignedGetObjectRequest presigned = s3Presigner.presignGetObject(presignRequest);
+        return new PresignedUrl(presigned.url().toString(), presigned.expiration());
+    }
+
+    public record PresignedUrl(String url, Instant expiresAt) {
+    }
+
+    private record CacheKey(String key, long expirySeconds) {
+    }
+}
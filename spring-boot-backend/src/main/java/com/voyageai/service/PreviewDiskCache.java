@@ -0,0 +1,148 @@
+package com.voyageai.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded LRU cache of derived assets on local disk. Entries are indexed in
+ * an access-ordered map; files are written to a temporary name and moved into
+ * place atomically, so readers never see a partial file. Readers get a stream
+ * opened while the index lock is held, so eviction cannot delete the file
+ * between the lookup and the open; evicting it afterwards is safe because the
+ * open handle keeps its data alive.
+ * The index is guarded by a ReentrantLock rather than a monitor because eviction
+ * deletes files while holding it, which would pin a virtual thread's carrier.
+ */
+@Service
+@Slf4j
+public class PreviewDiskCache {
+
+    @Value("${previews.cache-dir:${java.io.tmpdir}/voyage-previews}")
+    private String cacheDir;
+
+    @Value("${previews.cache-max-bytes:536870912}")
+    private long maxBytes;
+
+    private final Map<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long totalBytes;
+    private Path directory;
+
+    @PostConstruct
+    void init() throws IOException {
+        directory = Files.createDirectories(Path.of(cacheDir));
+        // Adopt files left by a previous run; their order is unknown so they are evicted first
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".jpg")).forEach(file -> {
+                try {
+                    long size = Files.size(file);
+                    entries.put(file.getFileName().toString(), size);
+                    totalBytes += size;
+                } catch (IOException e) {
+                    log.debug("Skipping unreadable cache file {}", file);
+                }
+            });
+        }
+        evict();
+        log.info("Preview cache at {} holds {} entries ({} bytes)", directory, entries.size(), totalBytes);
+    }
+
+    /**
+     * Opens the cached file for reading; the caller must close the stream.
+     */
+    public Optional<InputStream> open(String key) throws IOException {
+        String fileName = fileName(key);
+        lock.lock();
+        try {
+            if (entries.get(fileName) == null) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(Files.newInputStream(directory.resolve(fileName)));
+            } catch (NoSuchFileException e) {
+                totalBytes -= entries.remove(fileName);
+                return Optional.empty();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String key, byte[] content) throws IOException {
+        String fileName = fileName(key);
+        Path target = directory.resolve(fileName);
+        Path temp = Files.createTempFile(directory, "put-", ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        lock.lock();
+        try {
+            Long previous = entries.put(fileName, (long) content.length);
+            totalBytes += content.length - (previous != null ? previous : 0);
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(String key) {
+        String fileName = fileName(key);
+        lock.lock();
+        try {
+            Long size = entries.remove(fileName);
+            if (size != null) {
+                totalBytes -= size;
+                deleteQuietly(directory.resolve(fileName));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            deleteQuietly(directory.resolve(entry.getKey()));
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Failed to delete cached preview {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String fileName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest) + ".jpg";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.voyageai.service;
+
+import com.voyageai.entity.User;
+import com.voyageai.entity.UserRole;
+import com.voyageai.exception.BadRequestException;
+import com.voyageai.exception.ForbiddenException;
+import com.voyageai.repository.UserRoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs one kind of reconciliation at most once at a time. Scheduled and
+ * admin-started runs both execute on the job's own thread, and a session-level
+ * advisory lock keeps runs exclusive across nodes. The latest run started on
+ * this node stays available for status requests.
+ */
+@Slf4j
+final class ReconciliationJob<R extends ReconciliationRun> {
+
+    private final String name;
+    private final long advisoryLockKey;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRoleRepository userRoleRepository;
+    private final ExecutorService runner;
+
+    private volatile R current;
+
+    ReconciliationJob(String name, long advisoryLockKey, JdbcTemplate jdbcTemplate,
+                      UserRoleRepository userRoleRepository) {
+        this.name = name;
+        this.advisoryLockKey = advisoryLockKey;
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRoleRepository = userRoleRepository;
+        this.runner = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, name.replace(' ', '-'));
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Hands the run to the job's own thread, unless a run is already in progress on
+     * this node, so a long scan never holds up the scheduler's other tasks.
+     */
+    void runScheduled(Supplier<R> newRun, Consumer<R> work) {
+        R run = begin(newRun);
+        if (run != null) {
+            runner.submit(() -> execute(run, work));
+        }
+    }
+
+    R start(User user, Supplier<R> newRun, Consumer<R> work) {
+        requireAdmin(user);
+        R run = begin(newRun);
+        if (run == null) {
+            throw new BadRequestException("A " + name + " run is already in progress");
+        }
+        runner.submit(() -> execute(run, work));
+        return run;
+    }
+
+    Optional<R> status(User user) {
+        requireAdmin(user);
+        return Optional.ofNullable(current);
+    }
+
+    R current() {
+        return current;
+    }
+
+    boolean isRunning() {
+        R run = current;
+        return run != null && run.isRunning();
+    }
+
+    private synchronized R begin(Supplier<R> newRun) {
+        if (isRunning()) {
+            return null;
+        }
+        current = newRun.get();
+        return current;
+    }
+
+    private void execute(R run, Consumer<R> work) {
+        // A session-level advisory lock keeps runs exclusive across nodes
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (PreparedStatement lock = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                lock.setLong(1, advisoryLockKey);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next() || !rs.getBoolean(1)) {
+                        return false;
+                    }
+                }
+            }
+            try {
+                work.accept(run);
+            } finally {
+                try (PreparedStatement unlock = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                    unlock.setLong(1, advisoryLockKey);
+                    unlock.execute();
+                }
+            }
+            return true;
+        });
+
+        if (!Boolean.TRUE.equals(ran)) {
+            run.finish("skipped");
+            log.info("{} skipped: another node holds the lock", StringUtils.capitalize(name));
+        }
+    }
+
+    private void requireAdmin(User user) {
+        if (!userRoleRepository.hasRole(user.getId(), UserRole.AppRole.ADMIN)) {
+            throw new ForbiddenException("Only administrators can run " + name);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.voyageai.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Lifecycle of one reconciliation run. Subclasses add the counters their job
+ * reports; workers update them while status requests read them concurrently.
+ */
+abstract class ReconciliationRun {
+
+    final UUID runId = UUID.randomUUID();
+    final OffsetDateTime startedAt = OffsetDateTime.now();
+    private final long startedNanos = System.nanoTime();
+    volatile OffsetDateTime finishedAt;
+    private volatile long finishedNanos;
+    volatile String state = "running";
+
+    boolean isRunning() {
+        return "running".equals(state);
+    }
+
+    void finish(String finalState) {
+        finishedNanos = System.nanoTime();
+        finishedAt = OffsetDateTime.now();
+        state = finalState;
+    }
+
+    double perSecond(long count) {
+        long end = finishedAt != null ? finishedNanos : System.nanoTime();
+        double seconds = Duration.ofNanos(end - startedNanos).toMillis() / 1000.0;
+        return seconds > 0 ? count / seconds : 0;
+    }
+}
@@ -0,0 +1,315 @@
+package com.voyageai.service;
+
+import com.voyageai.entity.User;
+import com.voyageai.exception.BadRequestException;
+import com.voyageai.exception.ResourceNotFoundException;
+import com.voyageai.security.JwtService;
+import com.voyageai.security.PrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rotating refresh tokens grouped into families, one per login. Every refresh
+ * swaps the family's current token id in a single conditional UPDATE; presenting
+ * a token that was already rotated is treated as theft and revokes the family.
+ * Revoked family ids are mirrored in a Bloom filter that is rebuilt on a schedule
+ * and updated incrementally (locally and over NOTIFY), so checking whether a
+ * family is revoked only reaches the database on a possible match. Access tokens
+ * carry their family id as well, so revoking a family also ends its sessions.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService implements NotificationHandler {
+
+    public static final String CHANNEL = "refresh_token_revocations";
+
+    public static final String REASON_LOGOUT = "logout";
+    public static final String REASON_LOGOUT_ALL = "logout_all";
+    public static final String REASON_REUSE = "reuse_detected";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO refresh_token_families (id, user_id, current_jti, expires_at) VALUES (?, ?, ?, ?)";
+
+    private static final String ROTATE_SQL = """
+            UPDATE refresh_token_families SET current_jti = ?, rotated_at = NOW(), expires_at = ?
+            WHERE id = ? AND current_jti = ? AND revoked_at IS NULL AND expires_at > NOW()
+            RETURNING user_id
+            """;
+
+    private static final String REVOKE_SQL =
+            "UPDATE refresh_token_families SET revoked_at = NOW(), revoke_reason = ? WHERE id = ? AND revoked_at IS NULL";
+
+    private static final String REVOKE_USER_SQL =
+            "UPDATE refresh_token_families SET revoked_at = NOW(), revoke_reason = ? WHERE user_id = ? AND revoked_at IS NULL RETURNING id";
+
+    private static final String IS_REVOKED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM refresh_token_families WHERE id = ? AND revoked_at IS NOT NULL)";
+
+    private static final String IS_ACTIVE_SQL =
+            "SELECT EXISTS (SELECT 1 FROM refresh_token_families WHERE id = ? AND revoked_at IS NULL)";
+
+    private static final String REVOKED_IDS_SQL =
+            "SELECT id FROM refresh_token_families WHERE revoked_at IS NOT NULL AND expires_at > NOW()";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM refresh_token_families WHERE expires_at < NOW() - make_interval(secs => ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JwtService jwtService;
+    private final PrincipalCache principalCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.refresh-tokens.bloom.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Value("${security.refresh-tokens.bloom.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${security.refresh-tokens.accept-legacy:true}")
+    private boolean acceptLegacy;
+
+    @Value("${security.refresh-tokens.retention-seconds:86400}")
+    private long retentionSeconds;
+
+    @Value("${events.enabled:true}")
+    private boolean notifyEnabled;
+
+    private volatile BloomFilter revokedFamilies;
+    private volatile Queue<UUID> addedDuringRebuild;
+
+    // Possible matches already confirmed as not revoked; cleared whenever the filter is rebuilt
+    private final Map<UUID, Boolean> confirmedActive = new ConcurrentHashMap<>();
+    // Bumped by every revocation seen on this node, so a lookup that raced with one is not cached
+    private final AtomicLong revocations = new AtomicLong();
+
+    public TokenPair issue(User user) {
+        UUID familyId = UUID.randomUUID();
+        UUID tokenId = UUID.randomUUID();
+        jdbcTemplate.update(INSERT_SQL, familyId, user.getId(), tokenId, Timestamp.from(nextExpiry()));
+        return new TokenPair(
+                jwtService.generateAccessToken(user, familyId),
+                jwtService.generateRefreshToken(user, familyId, tokenId));
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair. Deliberately not transactional: a
+     * revocation triggered by token reuse must stick even though the call fails.
+     */
+    public RotatedTokens rotate(String refreshToken) {
+        Claims claims = parse(refreshToken);
+        UUID familyId = uuidClaim(claims, JwtService.CLAIM_FAMILY);
+        UUID tokenId = claims.getId() != null ? UUID.fromString(claims.getId()) : null;
+
+        if (familyId == null || tokenId == null) {
+            if (!acceptLegacy) {
+                throw new BadRequestException("Invalid refresh token");
+            }
+            // Tokens issued before rotation existed start a family on their first refresh
+            User user = resolveUser(claims, uuidClaim(claims, "userId"));
+            meterRegistry.counter("voyage.auth.refresh", "result", "legacy").increment();
+            return new RotatedTokens(user, issue(user));
+        }
+
+        if (isRevoked(familyId)) {
+            meterRegistry.counter("voyage.auth.refresh", "result", "revoked").increment();
+            throw new BadRequestException("Invalid refresh token");
+        }
+
+        UUID nextTokenId = UUID.randomUUID();
+        List<UUID> owners = jdbcTemplate.query(ROTATE_SQL, (rs, rowNum) -> rs.getObject("user_id", UUID.class),
+                nextTokenId, Timestamp.from(nextExpiry()), familyId, tokenId);
+
+        if (owners.isEmpty()) {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_ACTIVE_SQL, Boolean.class, familyId))) {
+                // The family is live but this token was already rotated: someone is replaying it
+                log.warn("Refresh token reuse detected for family {}, revoking", familyId);
+                revokeFamily(familyId, REASON_REUSE);
+                meterRegistry.counter("voyage.auth.refresh", "result", "reuse").increment();
+            } else {
+                meterRegistry.counter("voyage.auth.refresh", "result", "rejected").increment();
+            }
+            throw new BadRequestException("Invalid refresh token");
+        }
+
+        User user = resolveUser(claims, owners.get(0));
+        meterRegistry.counter("voyage.auth.refresh", "result", "rotated").increment();
+        return new RotatedTokens(user, new TokenPair(
+                jwtService.generateAccessToken(user, familyId),
+                jwtService.generateRefreshToken(user, familyId, nextTokenId)));
+    }
+
+    public void revoke(String refreshToken) {
+        UUID familyId = uuidClaim(parse(refreshToken), JwtService.CLAIM_FAMILY);
+        if (familyId != null) {
+            revokeFamily(familyId, REASON_LOGOUT);
+        }
+    }
+
+    public void revokeFamily(UUID familyId, String reason) {
+        if (jdbcTemplate.update(REVOKE_SQL, reason, familyId) > 0) {
+            markRevoked(familyId);
+            notifyRevoked(familyId);
+        }
+    }
+
+    public int revokeAllForUser(UUID userId) {
+        List<UUID> familyIds = jdbcTemplate.query(REVOKE_USER_SQL, (rs, rowNum) -> rs.getObject("id", UUID.class),
+                REASON_LOGOUT_ALL, userId);
+        for (UUID familyId : familyIds) {
+            markRevoked(familyId);
+            notifyRevoked(familyId);
+        }
+        return familyIds.size();
+    }
+
+    /**
+     * True when the family has been revoked. Definite negatives come from the Bloom
+     * filter; only possible matches are confirmed against the database.
+     */
+    public boolean isRevoked(UUID familyId) {
+        BloomFilter filter = revokedFamilies;
+        if (filter == null) {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_REVOKED_SQL, Boolean.class, familyId));
+        }
+        if (!filter.mightContain(familyId) || confirmedActive.containsKey(familyId)) {
+            return false;
+        }
+        long seen = revocations.get();
+        boolean revoked = Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_REVOKED_SQL, Boolean.class, familyId));
+        meterRegistry.counter("voyage.auth.revocation.lookups", "result", revoked ? "revoked" : "false_positive").increment();
+        if (!revoked) {
+            confirmedActive.put(familyId, Boolean.TRUE);
+            // markRevoked bumps the counter before it evicts, so either its eviction follows this
+            // put or the counter has already moved and the possibly stale answer is dropped here
+            if (revocations.get() != seen) {
+                confirmedActive.remove(familyId);
+            }
+        }
+        return revoked;
+    }
+
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public void handleNotification(String payload) {
+        try {
+            markRevoked(UUID.fromString(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed refresh token revocation: {}", payload);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${security.refresh-tokens.bloom.rebuild-interval-ms:300000}",
+            fixedDelayString = "${security.refresh-tokens.bloom.rebuild-interval-ms:300000}")
+    public void rebuildFilter() {
+        Queue<UUID> added = new ConcurrentLinkedQueue<>();
+        addedDuringRebuild = added;
+        try {
+            List<UUID> revoked = jdbcTemplate.queryForList(REVOKED_IDS_SQL, UUID.class);
+            BloomFilter filter = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2L), falsePositiveRate);
+            revoked.forEach(filter::add);
+
+            // Publish before closing the queue: markRevoked queues first and then reads the filter,
+            // so a revocation either reaches the new filter directly or is queued before the drain
+            revokedFamilies = filter;
+            addedDuringRebuild = null;
+            // Revocations that raced with the query above
+            added.forEach(filter::add);
+            confirmedActive.clear();
+            log.debug("Rebuilt refresh token revocation filter with {} families", revoked.size());
+        } catch (RuntimeException e) {
+            addedDuringRebuild = null;
+            log.warn("Failed to rebuild refresh token revocation filter: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${security.refresh-tokens.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        int deleted = jdbcTemplate.update(PURGE_SQL, retentionSeconds);
+        if (deleted > 0) {
+            log.info("Purged {} expired refresh token families", deleted);
+        }
+    }
+
+    private void markRevoked(UUID familyId) {
+        Queue<UUID> added = addedDuringRebuild;
+        if (added != null) {
+            added.add(familyId);
+        }
+        BloomFilter filter = revokedFamilies;
+        if (filter != null) {
+            filter.add(familyId);
+        }
+        revocations.incrementAndGet();
+        confirmedActive.remove(familyId);
+    }
+
+    private void notifyRevoked(UUID familyId) {
+        if (notifyEnabled) {
+            jdbcTemplate.queryForRowSet("SELECT pg_notify(?, ?)", CHANNEL, familyId.toString());
+        }
+    }
+
+    private Claims parse(String refreshToken) {
+        try {
+            return jwtService.parseRefreshToken(refreshToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid refresh token");
+        }
+    }
+
+    private User resolveUser(Claims claims, UUID userId) {
+        if (userId == null) {
+            throw new BadRequestException("Invalid refresh token");
+        }
+        User user = principalCache.get(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (!user.getEmail().equals(claims.getSubject())) {
+            throw new BadRequestException("Invalid refresh token");
+        }
+        return user;
+    }
+
+    private Instant nextExpiry() {
+        return Instant.now().plusMillis(jwtService.getRefreshExpiration());
+    }
+
+    private static UUID uuidClaim(Claims claims, String name) {
+        String value = claims.get(name, String.class);
+        try {
+            return value != null ? UUID.fromString(value) : null;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid refresh token");
+        }
+    }
+
+    public record TokenPair(String accessToken, String refreshToken) {
+    }
+
+    public record RotatedTokens(User user, TokenPair tokens) {
+    }
+}
@@ -5,14 +5,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
 import java.util.UUID;
 
@@ -21,8 +22,8 @@ import java.util.UUID;
 @Slf4j
 public class S3Service {
 
-    private final S3Client s3Client;
     private final S3Presigner s3Presigner;
+    private final StorageBackend storageBackend;
 
     @Value("${aws.s3.bucket}")
     private String bucketName;
@@ -30,13 +31,9 @@ public class S3Service {
     public String uploadFile(MultipartFile file, String folder) throws IOException {
         String key = folder + "/" + UUID.randomUUID() + "_" + file.getOriginalFilename();
         
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(bucketName)
-                .key(key)
-                .contentType(file.getContentType())
-                .build();
-
-        s3Client.putObject(putObjectRequest, RequestBody.fromBytes(file.getBytes()));
+        try (InputStream in = file.getInputStream()) {
+            storageBackend.put(key, file.getContentType(), in, file.getSize());
+        }
         
         log.info("File uploaded successfully: {}", key);
         
@@ -59,13 +56,31 @@ public class S3Service {
         return presignedRequest.url().toString();
     }
 
-    public void deleteFile(String key) {
-        DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
+    /**
+     * Presigns a PUT with Content-Type and Content-Length included in the signature,
+     * so the client can only upload exactly what it declared. When a base64 SHA-256
+     * is given it is signed too, and storage rejects a body that does not match.
+     */
+    public PresignedPutObjectRequest presignPut(String key, String contentType, long contentLength,
+                                                String checksumSha256, Duration duration) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
                 .bucket(bucketName)
                 .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .checksumSHA256(checksumSha256)
                 .build();
 
-        s3Client.deleteObject(deleteRequest);
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                .signatureDuration(duration)
+                .putObjectRequest(putObjectRequest)
+                .build();
+
+        return s3Presigner.presignPutObject(presignRequest);
+    }
+
+    public void deleteFile(String key) {
+        storageBackend.delete(key);
         log.info("File deleted successfully: {}", key);
     }
 
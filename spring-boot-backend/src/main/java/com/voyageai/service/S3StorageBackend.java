@@ -0,0 +1,142 @@
+package com.voyageai.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
+@RequiredArgsConstructor
+public class S3StorageBackend implements StorageBackend {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_DELETE_BATCH = 1000;
+
+    private final S3Client s3Client;
+    private final S3StreamingUploader s3StreamingUploader;
+
+    @Value("${aws.s3.bucket}")
+    private String bucketName;
+
+    @Override
+    public String getName() {
+        return "s3";
+    }
+
+    @Override
+    public void put(String key, String contentType, InputStream content, long size) throws IOException {
+        s3StreamingUploader.upload(key, contentType, content, size);
+    }
+
+    @Override
+    public Optional<ObjectMetadata> head(String key) {
+        try {
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .checksumMode(ChecksumMode.ENABLED)
+                    .build());
+            return Optional.of(new ObjectMetadata(head.contentLength(), head.contentType(), head.checksumSHA256()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public InputStream open(String key) {
+        return s3Client.getObject(GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
+
+    @Override
+    public void transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException {
+        if (length <= 0) {
+            return;
+        }
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .range("bytes=" + offset + "-" + (offset + length - 1))
+                .build();
+        try (InputStream in = s3Client.getObject(request)) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    target.write(chunk);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build());
+    }
+
+    /**
+     * Deletes with multi-object DeleteObjects requests of up to 1000 keys each.
+     */
+    @Override
+    public List<String> deleteAll(Collection<String> keys) {
+        List<String> all = new ArrayList<>(keys);
+        List<String> failed = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += MAX_DELETE_BATCH) {
+            List<ObjectIdentifier> batch = all.subList(from, Math.min(from + MAX_DELETE_BATCH, all.size())).stream()
+                    .map(key -> ObjectIdentifier.builder().key(key).build())
+                    .toList();
+            try {
+                DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucketName)
+                        .delete(Delete.builder().objects(batch).quiet(true).build())
+                        .build());
+                response.errors().forEach(error -> failed.add(error.key()));
+            } catch (S3Exception e) {
+                batch.forEach(identifier -> failed.add(identifier.key()));
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public ListPage list(String prefix, String continuationToken, int limit) {
+        ListObjectsV2Response response = s3Client.listObjectsV2(ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .continuationToken(continuationToken)
+                .maxKeys(limit)
+                .build());
+        List<ObjectSummary> objects = response.contents().stream()
+                .map(object -> new ObjectSummary(object.key(), object.size(), object.lastModified()))
+                .toList();
+        return new ListPage(objects, Boolean.TRUE.equals(response.isTruncated()) ? response.nextContinuationToken() : null);
+    }
+
+    @Override
+    public boolean supportsPresignedUrls() {
+        return true;
+    }
+}
@@ -0,0 +1,172 @@
+package com.voyageai.service;
+
+import com.voyageai.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads a stream to S3 without copying the whole object onto the heap.
+ * Objects up to the multipart threshold are streamed in a single PUT. Larger
+ * objects are split into parts uploaded in parallel on the async client; every
+ * part buffer holds permits from a process-wide in-flight byte budget, so
+ * concurrent uploads are throttled instead of exhausting the heap.
+ */
+@Service
+@Slf4j
+public class S3StreamingUploader {
+
+    private static final int PERMIT_BYTES = 1024;
+
+    private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+
+    @Value("${aws.s3.bucket}")
+    private String bucketName;
+
+    @Value("${aws.s3.upload.multipart-threshold-bytes:8388608}")
+    private long multipartThreshold;
+
+    @Value("${aws.s3.upload.part-size-bytes:8388608}")
+    private int partSize;
+
+    @Value("${aws.s3.upload.budget-wait-ms:30000}")
+    private long budgetWaitMs;
+
+    private final Semaphore inFlightBudget;
+
+    public S3StreamingUploader(S3Client s3Client,
+                               S3AsyncClient s3AsyncClient,
+                               @Value("${aws.s3.upload.max-in-flight-bytes:67108864}") long maxInFlightBytes) {
+        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
+        this.inFlightBudget = new Semaphore((int) (maxInFlightBytes / PERMIT_BYTES), true);
+    }
+
+    public void upload(String key, String contentType, InputStream in, long size) throws IOException {
+        if (size <= multipartThreshold) {
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .contentLength(size)
+                    .build();
+            s3Client.putObject(request, RequestBody.fromInputStream(in, size));
+            return;
+        }
+        uploadMultipart(key, contentType, in, size);
+    }
+
+    private void uploadMultipart(String key, String contentType, InputStream in, long size) throws IOException {
+        String uploadId = s3AsyncClient.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .build())
+                .join()
+                .uploadId();
+
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            long remaining = size;
+            int partNumber = 1;
+            while (remaining > 0) {
+                int length = (int) Math.min(partSize, remaining);
+                int permits = permitsFor(length);
+                acquire(permits);
+
+                byte[] buffer;
+                try {
+                    buffer = in.readNBytes(length);
+                } catch (IOException | RuntimeException e) {
+                    inFlightBudget.release(permits);
+                    throw e;
+                }
+                if (buffer.length != length) {
+                    inFlightBudget.release(permits);
+                    throw new IOException("Upload stream ended after " + (size - remaining + buffer.length) + " of " + size + " bytes");
+                }
+
+                int number = partNumber;
+                UploadPartRequest request = UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(number)
+                        .contentLength((long) length)
+                        .build();
+                parts.add(s3AsyncClient.uploadPart(request, AsyncRequestBody.fromBytesUnsafe(buffer))
+                        .whenComplete((response, error) -> inFlightBudget.release(permits))
+                        .thenApply(response -> CompletedPart.builder()
+                                .partNumber(number)
+                                .eTag(response.eTag())
+                                .build()));
+
+                remaining -= length;
+                partNumber++;
+            }
+
+            List<CompletedPart> completed = new ArrayList<>(parts.size());
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completed.add(part.join());
+            }
+
+            s3AsyncClient.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                    .build()).join();
+            log.debug("Multipart upload completed: {} ({} parts)", key, completed.size());
+        } catch (IOException | RuntimeException e) {
+            abort(key, uploadId, parts);
+            if (e instanceof CompletionException && e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void acquire(int permits) {
+        try {
+            if (!inFlightBudget.tryAcquire(permits, budgetWaitMs, TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException("Upload capacity exhausted, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Upload interrupted");
+        }
+    }
+
+    private void abort(String key, String uploadId, List<CompletableFuture<CompletedPart>> parts) {
+        // Let in-flight parts settle so their budget is released before aborting
+        CompletableFuture.allOf(parts.toArray(new CompletableFuture[0])).handle((r, e) -> null).join();
+        try {
+            s3AsyncClient.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build()).join();
+        } catch (RuntimeException e) {
+            log.warn("Failed to abort multipart upload {} for {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+
+    private static int permitsFor(int bytes) {
+        return (bytes + PERMIT_BYTES - 1) / PERMIT_BYTES;
+    }
+}
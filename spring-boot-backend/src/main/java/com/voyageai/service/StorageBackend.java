@@ -0,0 +1,82 @@
+package com.voyageai.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Object storage used for documents and their derived assets.
+ * Implementations are selected with the storage.backend property.
+ */
+public interface StorageBackend {
+
+    String getName();
+
+    void put(String key, String contentType, InputStream content, long size) throws IOException;
+
+    Optional<ObjectMetadata> head(String key);
+
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Copies length bytes starting at offset to the target channel.
+     */
+    void transferTo(String key, long offset, long length, WritableByteChannel target) throws IOException;
+
+    void delete(String key);
+
+    /**
+     * Deletes the given keys, batching where the store supports it.
+     * Returns the keys that could not be deleted.
+     */
+    default List<String> deleteAll(Collection<String> keys) {
+        List<String> failed = new ArrayList<>();
+        for (String key : keys) {
+            try {
+                delete(key);
+            } catch (RuntimeException e) {
+                failed.add(key);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Lists up to limit objects whose key starts with prefix, in key order.
+     * Pass the previous page's nextToken to continue; it is null on the last page.
+     */
+    ListPage list(String prefix, String continuationToken, int limit) throws IOException;
+
+    /**
+     * Whether clients can be handed presigned URLs to read and write objects
+     * directly instead of going through the API.
+     */
+    default boolean supportsPresignedUrls() {
+        return false;
+    }
+
+    /**
+     * The file backing an object, when the container can send it itself (sendfile).
+     */
+    default Optional<Path> localFile(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * @param checksumSha256 base64 SHA-256 when the store recorded one, otherwise null
+     */
+    record ObjectMetadata(long size, String contentType, String checksumSha256) {
+    }
+
+    record ObjectSummary(String key, long size, Instant lastModified) {
+    }
+
+    record ListPage(List<ObjectSummary> objects, String nextToken) {
+    }
+}
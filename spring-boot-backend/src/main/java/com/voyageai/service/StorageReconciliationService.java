@@ -0,0 +1,295 @@
+package com.voyageai.service;
+
+import com.voyageai.dto.admin.StorageReconciliationStatusDTO;
+import com.voyageai.entity.User;
+import com.voyageai.repository.UserRoleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Finds stored objects that no document references any more (left behind by
+ * deleted itineraries or failed deletes) and removes them. The bucket is listed
+ * in parallel by key prefix: document keys start with an itinerary UUID, so the
+ * sixteen leading hex digits split the keyspace evenly, and derived assets are
+ * split the same way under derived/. Each listed page is anti-joined against
+ * documents and stored_objects in one query and orphans are deleted with batched
+ * multi-object deletes. Objects newer than the grace period are never touched,
+ * which protects uploads whose document row has not been committed yet.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageReconciliationService {
+
+    private static final long ADVISORY_LOCK_KEY = 0x566F796167654FL;
+    private static final int MAX_SAMPLE_KEYS = 100;
+    private static final String DERIVED_PREFIX = "derived/";
+
+    // Only keys this service writes are considered; anything else in the bucket is left alone
+    private static final Pattern MANAGED_KEY = Pattern.compile(
+            "^(derived/)?[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}/.+");
+
+    private static final String REFERENCED_SQL = """
+            SELECT k FROM unnest(?) AS k
+            WHERE EXISTS (SELECT 1 FROM documents d WHERE d.file_url = ? || k)
+               OR EXISTS (SELECT 1 FROM stored_objects s WHERE s.storage_key = k)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StorageBackend storageBackend;
+    private final DocumentService documentService;
+    private final UserRoleRepository userRoleRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${storage-reconciliation.workers:4}")
+    private int workers;
+
+    @Value("${storage-reconciliation.page-size:1000}")
+    private int pageSize;
+
+    @Value("${storage-reconciliation.grace-period-hours:24}")
+    private long gracePeriodHours;
+
+    @Value("${storage-reconciliation.list-requests-per-second:20}")
+    private double listRequestsPerSecond;
+
+    @Value("${storage-reconciliation.deletes-per-second:500}")
+    private double deletesPerSecond;
+
+    @Value("${storage-reconciliation.scheduled-dry-run:true}")
+    private boolean scheduledDryRun;
+
+    private ReconciliationJob<RunState> job;
+
+    private Counter scannedCounter;
+    private Counter orphanCounter;
+    private Counter deletedCounter;
+
+    @PostConstruct
+    void init() {
+        job = new ReconciliationJob<>("storage reconciliation", ADVISORY_LOCK_KEY, jdbcTemplate, userRoleRepository);
+        scannedCounter = meterRegistry.counter("voyage.storage-reconciliation.objects");
+        orphanCounter = meterRegistry.counter("voyage.storage-reconciliation.orphans");
+        deletedCounter = meterRegistry.counter("voyage.storage-reconciliation.deleted");
+    }
+
+    @Scheduled(cron = "${storage-reconciliation.cron:0 0 4 * * SUN}")
+    public void scheduledRun() {
+        job.runScheduled(() -> new RunState(scheduledDryRun), this::scan);
+    }
+
+    public StorageReconciliationStatusDTO start(boolean dryRun, User user) {
+        return job.start(user, () -> new RunState(dryRun), this::scan).toDTO();
+    }
+
+    public StorageReconciliationStatusDTO getStatus(User user) {
+        return job.status(user)
+                .map(RunState::toDTO)
+                .orElseGet(() -> StorageReconciliationStatusDTO.builder().state("idle").build());
+    }
+
+    private void scan(RunState state) {
+        log.info("Storage reconciliation started: {} (dryRun={}, backend={})", state.runId, state.dryRun, storageBackend.getName());
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        Pacer listPacer = new Pacer(listRequestsPerSecond);
+        Pacer deletePacer = new Pacer(deletesPerSecond);
+        Instant cutoff = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+        String fileUrlPrefix = documentService.toFileUrl("");
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (char digit : "0123456789abcdef".toCharArray()) {
+            for (String prefix : List.of(String.valueOf(digit), DERIVED_PREFIX + digit)) {
+                tasks.add(() -> {
+                    scanPrefix(prefix, cutoff, fileUrlPrefix, listPacer, deletePacer, state);
+                    return null;
+                });
+            }
+        }
+
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    state.failures.incrementAndGet();
+                    log.warn("Storage reconciliation task failed: {}", e.getCause().getMessage());
+                }
+            }
+            state.finish(state.failures.get() == 0 ? "completed" : "completed_with_failures");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            state.finish("interrupted");
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Storage reconciliation {}: {} objects, {} orphans ({} bytes), {} deleted, {} delete failures",
+                state.state, state.scanned.get(), state.orphans.get(), state.orphanBytes.get(),
+                state.deleted.get(), state.deleteFailures.get());
+    }
+
+    private void scanPrefix(String prefix, Instant cutoff, String fileUrlPrefix,
+                            Pacer listPacer, Pacer deletePacer, RunState state) throws Exception {
+        String token = null;
+        do {
+            listPacer.acquire(1);
+            StorageBackend.ListPage page = storageBackend.list(prefix, token, pageSize);
+            token = page.nextToken();
+
+            // Owner key of each candidate: the object itself, or the original a derived asset belongs to
+            Map<String, List<StorageBackend.ObjectSummary>> candidatesByOwner = new HashMap<>();
+            for (StorageBackend.ObjectSummary object : page.objects()) {
+                state.scanned.incrementAndGet();
+                scannedCounter.increment();
+                if (!MANAGED_KEY.matcher(object.key()).matches()) {
+                    state.skippedUnmanaged.incrementAndGet();
+                } else if (object.lastModified() != null && object.lastModified().isAfter(cutoff)) {
+                    state.skippedRecent.incrementAndGet();
+                } else {
+                    candidatesByOwner.computeIfAbsent(ownerKey(object.key()), k -> new ArrayList<>()).add(object);
+                }
+            }
+            if (candidatesByOwner.isEmpty()) {
+                continue;
+            }
+
+            Set<String> referenced = findReferenced(candidatesByOwner.keySet(), fileUrlPrefix);
+            List<String> orphanKeys = new ArrayList<>();
+            candidatesByOwner.forEach((owner, objects) -> {
+                if (!referenced.contains(owner)) {
+                    for (StorageBackend.ObjectSummary object : objects) {
+                        orphanKeys.add(object.key());
+                        state.recordOrphan(object);
+                        orphanCounter.increment();
+                    }
+                }
+            });
+
+            if (!state.dryRun && !orphanKeys.isEmpty()) {
+                deletePacer.acquire(orphanKeys.size());
+                List<String> failed = storageBackend.deleteAll(orphanKeys);
+                state.deleted.addAndGet(orphanKeys.size() - failed.size());
+                state.deleteFailures.addAndGet(failed.size());
+                deletedCounter.increment(orphanKeys.size() - failed.size());
+                if (!failed.isEmpty()) {
+                    log.warn("Failed to delete {} orphaned objects under prefix {}", failed.size(), prefix);
+                }
+            }
+        } while (token != null);
+    }
+
+    private Set<String> findReferenced(Collection<String> ownerKeys, String fileUrlPrefix) {
+        List<String> rows = jdbcTemplate.query(con -> {
+            PreparedStatement statement = con.prepareStatement(REFERENCED_SQL);
+            Array keys = con.createArrayOf("text", ownerKeys.toArray());
+            statement.setArray(1, keys);
+            statement.setString(2, fileUrlPrefix);
+            return statement;
+        }, (rs, rowNum) -> rs.getString(1));
+        return new HashSet<>(rows);
+    }
+
+    private static String ownerKey(String key) {
+        if (!key.startsWith(DERIVED_PREFIX)) {
+            return key;
+        }
+        // derived/<storage key>/<asset>.jpg
+        return key.substring(DERIVED_PREFIX.length(), key.lastIndexOf('/'));
+    }
+
+    /**
+     * Spaces out calls shared by all workers so that, on average, no more than
+     * permitsPerSecond permits are handed out.
+     */
+    private static final class Pacer {
+
+        private final double nanosPerPermit;
+        private long nextFreeNanos = System.nanoTime();
+
+        Pacer(double permitsPerSecond) {
+            this.nanosPerPermit = permitsPerSecond > 0 ? 1_000_000_000d / permitsPerSecond : 0;
+        }
+
+        void acquire(int permits) throws InterruptedException {
+            if (nanosPerPermit == 0) {
+                return;
+            }
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long start = Math.max(now, nextFreeNanos);
+                nextFreeNanos = start + (long) (permits * nanosPerPermit);
+                waitNanos = start - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+
+    private static final class RunState extends ReconciliationRun {
+
+        private final boolean dryRun;
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong skippedRecent = new AtomicLong();
+        private final AtomicLong skippedUnmanaged = new AtomicLong();
+        private final AtomicLong orphans = new AtomicLong();
+        private final AtomicLong orphanBytes = new AtomicLong();
+        private final AtomicLong deleted = new AtomicLong();
+        private final AtomicLong deleteFailures = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final List<String> samples = Collections.synchronizedList(new ArrayList<>());
+
+        RunState(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        void recordOrphan(StorageBackend.ObjectSummary object) {
+            orphans.incrementAndGet();
+            orphanBytes.addAndGet(object.size());
+            if (samples.size() < MAX_SAMPLE_KEYS) {
+                samples.add(object.key());
+            }
+        }
+
+
+        StorageReconciliationStatusDTO toDTO() {
+            List<String> sampleCopy;
+            synchronized (samples) {
+                sampleCopy = new ArrayList<>(samples);
+            }
+            return StorageReconciliationStatusDTO.builder()
+                    .runId(runId)
+                    .state(state)
+                    .dryRun(dryRun)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .objectsScanned(scanned.get())
+                    .skippedRecent(skippedRecent.get())
+                    .skippedUnmanaged(skippedUnmanaged.get())
+                    .orphansFound(orphans.get())
+                    .orphanBytes(orphanBytes.get())
+                    .orphansDeleted(deleted.get())
+                    .deleteFailures(deleteFailures.get())
+                    .failures(failures.get())
+                    .objectsPerSecond(perSecond(scanned.get()))
+                    .sampleOrphanKeys(sampleCopy)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.voyageai.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reference-counted registry of stored objects keyed by SHA-256 of their content.
+ * Documents with the same hash share one object; it is deleted from storage only
+ * when the last referencing document goes away. All counter changes are single
+ * row UPDATEs, so a concurrent acquire and release on the same hash serialize on
+ * the row lock and an object is never deleted while a new document points at it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoredObjectService {
+
+    private static final String ACQUIRE_SQL =
+            "UPDATE stored_objects SET ref_count = ref_count + 1 WHERE content_hash = ? RETURNING storage_key, file_size, content_type";
+
+    private static final String REGISTER_SQL = """
+            INSERT INTO stored_objects (content_hash, storage_key, file_size, content_type) VALUES (?, ?, ?, ?)
+            ON CONFLICT (content_hash) DO UPDATE SET ref_count = stored_objects.ref_count + 1
+            RETURNING storage_key
+            """;
+
+    private static final String RELEASE_SQL =
+            "UPDATE stored_objects SET ref_count = ref_count - 1 WHERE content_hash = ? RETURNING ref_count, storage_key";
+
+    private static final String DELETE_SQL = "DELETE FROM stored_objects WHERE content_hash = ? AND ref_count = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StorageBackend storageBackend;
+
+    /**
+     * Adds a reference to an existing object with this hash.
+     * Returns the object, or empty if nothing with this content is stored yet.
+     */
+    public Optional<StoredObject> acquire(String contentHash) {
+        List<StoredObject> objects = jdbcTemplate.query(ACQUIRE_SQL,
+                (rs, rowNum) -> new StoredObject(rs.getString("storage_key"), rs.getLong("file_size"), rs.getString("content_type")),
+                contentHash);
+        return objects.stream().findFirst();
+    }
+
+    /**
+     * Registers a freshly uploaded object. If another upload of the same content won
+     * the race, that object is referenced instead and ours is deleted after commit.
+     * Returns the storage key the document should point at.
+     */
+    public String register(String contentHash, String storageKey, long fileSize, String contentType) {
+        String canonicalKey = jdbcTemplate.queryForObject(REGISTER_SQL, String.class, contentHash, storageKey, fileSize, contentType);
+        if (!storageKey.equals(canonicalKey)) {
+            log.debug("Duplicate upload of {} lost the race, discarding {}", contentHash, storageKey);
+            deleteAfterCommit(storageKey);
+        }
+        return canonicalKey;
+    }
+
+    /**
+     * Drops one reference and deletes the object from storage, after commit, once
+     * nothing references it any more.
+     */
+    public void release(String contentHash) {
+        jdbcTemplate.query(RELEASE_SQL, rs -> {
+            if (rs.getInt("ref_count") <= 0) {
+                jdbcTemplate.update(DELETE_SQL, contentHash);
+                deleteAfterCommit(rs.getString("storage_key"));
+            }
+        }, contentHash);
+    }
+
+    void deleteAfterCommit(String storageKey) {
+        Runnable delete = () -> {
+            try {
+                List<String> keys = new ArrayList<>(DocumentPreviewService.derivedKeys(storageKey));
+                keys.add(storageKey);
+                List<String> failed = storageBackend.deleteAll(keys);
+                if (!failed.isEmpty()) {
+                    // Left for storage reconciliation to clean up
+                    log.warn("Failed to delete {} from storage", failed);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to delete file from storage: {}", e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete.run();
+                }
+            });
+        } else {
+            delete.run();
+        }
+    }
+
+    public record StoredObject(String storageKey, long fileSize, String contentType) {
+    }
+}
@@ -0,0 +1,257 @@
+package com.voyageai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Local OCR using the tesseract CLI for images and pdftotext for PDFs with a text
+ * layer. Booking details are picked out of the recognised text with simple
+ * patterns; anything not found is left empty rather than guessed.
+ */
+@Component
+@ConditionalOnProperty(name = "ocr.engine", havingValue = "tesseract", matchIfMissing = true)
+@Slf4j
+public class TesseractOcrEngine implements OcrEngine {
+
+    private static final int MAX_EXTRACTED_TEXT = 4000;
+
+    private static final Pattern BOOKING_REFERENCE = Pattern.compile(
+            "(?i)(?:booking|confirmation|reservation|pnr)\\s*(?:ref(?:erence)?|code|number|no\\.?)?\\s*[:#]?\\s*([A-Z0-9]{5,12})\\b");
+
+    private static final Pattern AMOUNT = Pattern.compile(
+            "(?i:grand total|total|amount paid|amount|price)\\D{0,20}?([A-Z]{3}|[$€£¥₹])?\\s?(\\d{1,3}(?:[.,\\s]?\\d{3})*(?:[.,]\\d{2})?)\\s?([A-Z]{3})?\\b");
+
+    private static final Pattern ISO_DATE = Pattern.compile("\\b(\\d{4}-\\d{2}-\\d{2})\\b");
+    private static final Pattern TEXT_DATE = Pattern.compile("\\b(\\d{1,2} (?:Jan|Feb|Mar|Apr|May|Jun|Jul|Aug|Sep|Oct|Nov|Dec)[a-z]* \\d{4})\\b");
+
+    private static final Pattern PROVIDER = Pattern.compile(
+            "(?i).*\\b(airlines?|airways|air|hotels?|resort|inn|suites|rail|railways|tours?|travels?|cruises?|rent a car|insurance)\\b.*");
+
+    private static final Map<String, String> CURRENCY_SYMBOLS = Map.of(
+            "$", "USD", "€", "EUR", "£", "GBP", "¥", "JPY", "₹", "INR");
+
+    private static final Set<String> ISO_CURRENCIES = Currency.getAvailableCurrencies().stream()
+            .map(Currency::getCurrencyCode)
+            .collect(Collectors.toUnmodifiableSet());
+
+    @Value("${ocr.tesseract.command:tesseract}")
+    private String tesseractCommand;
+
+    @Value("${ocr.tesseract.language:eng}")
+    private String language;
+
+    @Value("${ocr.pdftotext.command:pdftotext}")
+    private String pdftotextCommand;
+
+    @Value("${ocr.process-timeout-ms:60000}")
+    private long processTimeoutMs;
+
+    @Override
+    public String getName() {
+        return "tesseract";
+    }
+
+    @Override
+    public Result process(InputStream content, String contentType, String documentType) throws IOException {
+        Path input = Files.createTempFile("ocr-input-", null);
+        Path output = Files.createTempFile("ocr-output-", ".txt");
+        try {
+            Files.copy(content, input, StandardCopyOption.REPLACE_EXISTING);
+
+            String text;
+            double confidence;
+            if ("application/pdf".equals(contentType)) {
+                run(output, pdftotextCommand, "-layout", input.toString(), "-");
+                text = Files.readString(output, StandardCharsets.UTF_8);
+                // A text layer is exact; a scanned PDF without one yields nothing
+                confidence = text.isBlank() ? 0 : 100;
+            } else {
+                run(output, tesseractCommand, input.toString(), "stdout", "-l", language, "tsv");
+                TsvText tsv = parseTsv(Files.readAllLines(output, StandardCharsets.UTF_8));
+                text = tsv.text();
+                confidence = tsv.confidence();
+            }
+            return extract(text, confidence);
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private void run(Path output, String... command) throws IOException {
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(output.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            if (!process.waitFor(processTimeoutMs, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IOException(command[0] + " timed out after " + processTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IOException(command[0] + " interrupted", e);
+        }
+        if (process.exitValue() != 0) {
+            throw new IOException(command[0] + " exited with status " + process.exitValue());
+        }
+    }
+
+    /**
+     * Rebuilds lines from tesseract's TSV output and averages the word confidences.
+     * Columns: level, page, block, par, line, word, left, top, width, height, conf, text
+     */
+    private TsvText parseTsv(List<String> rows) {
+        StringBuilder text = new StringBuilder();
+        String currentLine = null;
+        double confidenceSum = 0;
+        int words = 0;
+
+        for (int i = 1; i < rows.size(); i++) {
+            String[] columns = rows.get(i).split("\t", -1);
+            if (columns.length < 12 || columns[11].isBlank()) {
+                continue;
+            }
+            double conf = Double.parseDouble(columns[10]);
+            if (conf < 0) {
+                continue;
+            }
+            String lineKey = columns[1] + "." + columns[2] + "." + columns[3] + "." + columns[4];
+            if (currentLine != null) {
+                text.append(lineKey.equals(currentLine) ? ' ' : '\n');
+            }
+            currentLine = lineKey;
+            text.append(columns[11]);
+            confidenceSum += conf;
+            words++;
+        }
+        return new TsvText(text.toString(), words == 0 ? 0 : confidenceSum / words);
+    }
+
+    private Result extract(String text, double confidence) {
+        String bookingReference = null;
+        Matcher booking = BOOKING_REFERENCE.matcher(text);
+        while (booking.find()) {
+            // Require at least one digit or an all-caps code so words like "number" don't match
+            String candidate = booking.group(1);
+            if (candidate.chars().anyMatch(Character::isDigit) || candidate.equals(candidate.toUpperCase(Locale.ROOT))) {
+                bookingReference = candidate;
+                break;
+            }
+        }
+
+        BigDecimal amount = null;
+        String currency = null;
+        Matcher amountMatcher = AMOUNT.matcher(text);
+        if (amountMatcher.find()) {
+            amount = parseAmount(amountMatcher.group(2));
+            currency = toCurrency(amountMatcher.group(1));
+            if (currency == null) {
+                currency = toCurrency(amountMatcher.group(3));
+            }
+        }
+
+        LocalDate eventDate = parseDate(text);
+
+        String providerName = text.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && line.length() <= 80 && PROVIDER.matcher(line).matches())
+                .findFirst()
+                .orElse(null);
+
+        Map<String, Object> extractedData = new LinkedHashMap<>();
+        extractedData.put("engine", getName());
+        putIfPresent(extractedData, "providerName", providerName);
+        putIfPresent(extractedData, "bookingReference", bookingReference);
+        putIfPresent(extractedData, "amount", amount);
+        putIfPresent(extractedData, "currency", currency);
+        putIfPresent(extractedData, "eventDate", eventDate != null ? eventDate.toString() : null);
+        extractedData.put("extractedText", text.length() > MAX_EXTRACTED_TEXT ? text.substring(0, MAX_EXTRACTED_TEXT) : text);
+
+        return new Result(Math.round(confidence * 100) / 100.0, providerName, bookingReference,
+                amount, currency, eventDate, extractedData);
+    }
+
+    private static BigDecimal parseAmount(String raw) {
+        String value = raw.replace(" ", "");
+        int lastComma = value.lastIndexOf(',');
+        int lastDot = value.lastIndexOf('.');
+        // Whichever separator is followed by exactly two digits at the end is the decimal point
+        if (lastComma > lastDot && value.length() - lastComma == 3) {
+            value = value.replace(".", "").replace(',', '.');
+        } else {
+            value = value.replace(",", "");
+            if (lastDot >= 0 && value.length() - value.lastIndexOf('.') != 3) {
+                value = value.replace(".", "");
+            }
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Maps a symbol or code to an ISO 4217 code; capitalised words next to an
+     * amount ("TOTAL DUE 120.00") are not currencies and give null.
+     */
+    private static String toCurrency(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String code = CURRENCY_SYMBOLS.getOrDefault(raw, raw);
+        return ISO_CURRENCIES.contains(code) ? code : null;
+    }
+
+    private static LocalDate parseDate(String text) {
+        Matcher iso = ISO_DATE.matcher(text);
+        if (iso.find()) {
+            try {
+                return LocalDate.parse(iso.group(1));
+            } catch (DateTimeParseException ignored) {
+                // fall through to textual dates
+            }
+        }
+        Matcher textual = TEXT_DATE.matcher(text);
+        if (textual.find()) {
+            String value = textual.group(1);
+            for (String pattern : List.of("d MMM yyyy", "d MMMM yyyy")) {
+                try {
+                    return LocalDate.parse(value, DateTimeFormatter.ofPattern(pattern, Locale.ENGLISH));
+                } catch (DateTimeParseException ignored) {
+                    // try the next pattern
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void putIfPresent(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    private record TsvText(String text, double confidence) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.voyageai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageai.dto.event.TripEventDTO;
+import com.voyageai.dto.event.TripEventType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Publishes trip events through Postgres NOTIFY. The notification is issued on the
+ * caller's transactional connection, so Postgres only delivers it once that
+ * transaction commits and drops it on rollback.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripEventPublisher {
+
+    public static final String CHANNEL = "trip_events";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${events.enabled:true}")
+    private boolean enabled;
+
+    public void publish(UUID itineraryId, TripEventType type, UUID entityId) {
+        if (!enabled) {
+            return;
+        }
+
+        TripEventDTO event = TripEventDTO.builder()
+                .itineraryId(itineraryId)
+                .type(type)
+                .entityId(entityId)
+                .occurredAt(OffsetDateTime.now())
+                .build();
+
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            jdbcTemplate.queryForRowSet("SELECT pg_notify(?, ?)", CHANNEL, payload);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize trip event {} for itinerary {}: {}", type, itineraryId, e.getMessage());
+        }
+    }
+}
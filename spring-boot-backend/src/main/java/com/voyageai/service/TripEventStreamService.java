@@ -0,0 +1,162 @@
+package com.voyageai.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voyageai.dto.event.TripEventDTO;
+import com.voyageai.dto.event.TripEventType;
+import com.voyageai.entity.User;
+import com.voyageai.exception.ForbiddenException;
+import com.voyageai.repository.ItineraryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the SSE subscribers connected to this node, grouped by itinerary,
+ * and delivers events received from the Postgres notification channel. Access is
+ * checked when a stream opens and again for every subscriber of an itinerary
+ * when one of its participants is removed, so a removed user stops receiving
+ * events without having to reconnect.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TripEventStreamService implements NotificationHandler {
+
+    private final ItineraryRepository itineraryRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "trip-events-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${events.heartbeat-interval-ms:25000}")
+    private long heartbeatIntervalMs;
+
+    @PostConstruct
+    void startHeartbeat() {
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        subscribers.values().forEach(emitters -> emitters.forEach(subscriber -> subscriber.emitter().complete()));
+        subscribers.clear();
+    }
+
+    public SseEmitter subscribe(UUID itineraryId, User user) {
+        if (!hasAccess(itineraryId, user.getId())) {
+            throw new ForbiddenException("You don't have access to this itinerary");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(user.getId(), emitter);
+        Set<Subscriber> emitters = subscribers.computeIfAbsent(itineraryId, id -> new CopyOnWriteArraySet<>());
+        emitters.add(subscriber);
+
+        Runnable remove = () -> unsubscribe(itineraryId, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        log.debug("SSE subscriber added for itinerary: {}", itineraryId);
+        return emitter;
+    }
+
+    @Override
+    public String channel() {
+        return TripEventPublisher.CHANNEL;
+    }
+
+    @Override
+    public void handleNotification(String payload) {
+        try {
+            dispatch(objectMapper.readValue(payload, TripEventDTO.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to dispatch trip event: {}", e.getMessage());
+        }
+    }
+
+    public void dispatch(TripEventDTO event) {
+        Set<Subscriber> emitters = subscribers.get(event.getItineraryId());
+        if (emitters == null) {
+            return;
+        }
+        if (event.getType() == TripEventType.PARTICIPANT_REMOVED) {
+            revokeLostAccess(event.getItineraryId(), emitters);
+        }
+        for (Subscriber subscriber : emitters) {
+            try {
+                subscriber.emitter().send(SseEmitter.event()
+                        .name(event.getType().name())
+                        .data(event));
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(event.getItineraryId(), subscriber);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void sendHeartbeats() {
+        subscribers.forEach((itineraryId, emitters) -> {
+            for (Subscriber subscriber : emitters) {
+                try {
+                    subscriber.emitter().send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(itineraryId, subscriber);
+                }
+            }
+        });
+    }
+
+    // The event carries the participant id rather than the user, so every subscriber of the itinerary is re-checked
+    private void revokeLostAccess(UUID itineraryId, Set<Subscriber> emitters) {
+        for (Subscriber subscriber : emitters) {
+            if (!hasAccess(itineraryId, subscriber.userId())) {
+                unsubscribe(itineraryId, subscriber);
+                subscriber.emitter().complete();
+                log.debug("SSE subscriber {} lost access to itinerary: {}", subscriber.userId(), itineraryId);
+            }
+        }
+    }
+
+    private boolean hasAccess(UUID itineraryId, UUID userId) {
+        return itineraryRepository.isOwner(itineraryId, userId) ||
+               itineraryRepository.isParticipant(itineraryId, userId);
+    }
+
+    private void unsubscribe(UUID itineraryId, Subscriber subscriber) {
+        subscribers.computeIfPresent(itineraryId, (id, emitters) -> {
+            emitters.remove(subscriber);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private record Subscriber(UUID userId, SseEmitter emitter) {
+    }
+}
@@ -0,0 +1,3 @@
+-- Key a direct upload was completed under. A deduplicated upload points file_url at the
+-- existing object, so the replay guard in completeUpload checks this column instead
+ALTER TABLE documents ADD COLUMN upload_key TEXT;
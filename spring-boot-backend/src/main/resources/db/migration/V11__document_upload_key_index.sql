@@ -0,0 +1,2 @@
+-- Built without blocking writes to documents; also stops two concurrent completions of one key
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_documents_upload_key ON documents(upload_key);
@@ -0,0 +1,24 @@
+-- Fills search_vector for documents that predate V8, committing every batch so no lock or
+-- transaction is held for the whole table. Rows written since V8 are kept by the trigger.
+DO $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    batch_end UUID;
+BEGIN
+    LOOP
+        -- Postgres has no max(uuid), so take the last id of the batch by ordering
+        SELECT id INTO batch_end
+        FROM (SELECT id FROM documents WHERE id > last_id ORDER BY id LIMIT 5000) batch
+        ORDER BY id DESC
+        LIMIT 1;
+        EXIT WHEN batch_end IS NULL;
+
+        UPDATE documents
+        SET search_vector = document_search_vector(booking_reference, provider_name, file_name,
+                                                   document_type, extracted_data)
+        WHERE id > last_id AND id <= batch_end AND search_vector IS NULL;
+
+        last_id := batch_end;
+        COMMIT;
+    END LOOP;
+END $$;
@@ -0,0 +1,5 @@
+-- Built without blocking writes to documents
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_documents_search_vector ON documents USING GIN (search_vector);
+
+-- Containment queries (extracted_data @> '{"currency": "EUR"}')
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_documents_extracted_data ON documents USING GIN (extracted_data jsonb_path_ops);
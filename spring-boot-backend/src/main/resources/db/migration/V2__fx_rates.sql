@@ -0,0 +1,14 @@
+-- FX rates table: units of currency per 1 USD, effective from effective_date
+CREATE TABLE IF NOT EXISTS fx_rates (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    currency VARCHAR(10) NOT NULL,
+    effective_date DATE NOT NULL,
+    rate_per_usd DECIMAL(18, 8) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    UNIQUE(currency, effective_date)
+);
+
+CREATE INDEX idx_fx_rates_currency_date ON fx_rates(currency, effective_date);
+
+-- Base currency used for summaries, balances and settlement plans
+ALTER TABLE itineraries ADD COLUMN IF NOT EXISTS base_currency VARCHAR(10) NOT NULL DEFAULT 'USD';
@@ -0,0 +1,3 @@
+-- Balance reconciliation aggregates settlements per participant
+CREATE INDEX IF NOT EXISTS idx_settlements_from_participant_id ON settlements(from_participant_id);
+CREATE INDEX IF NOT EXISTS idx_settlements_to_participant_id ON settlements(to_participant_id);
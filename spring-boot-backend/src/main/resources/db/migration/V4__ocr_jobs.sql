@@ -0,0 +1,17 @@
+-- Server-side OCR work queue, claimed by workers with FOR UPDATE SKIP LOCKED
+CREATE TABLE ocr_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    document_id UUID NOT NULL REFERENCES documents(id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL DEFAULT 'queued',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    locked_by VARCHAR(100),
+    locked_at TIMESTAMP WITH TIME ZONE,
+    last_error TEXT,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_ocr_jobs_document UNIQUE (document_id)
+);
+
+CREATE INDEX idx_ocr_jobs_ready ON ocr_jobs(next_attempt_at) WHERE status = 'queued';
+CREATE INDEX idx_ocr_jobs_processing ON ocr_jobs(locked_at) WHERE status = 'processing';
@@ -0,0 +1,12 @@
+-- Content-addressed document storage: identical uploads share one object
+ALTER TABLE documents ADD COLUMN content_hash VARCHAR(64);
+CREATE INDEX idx_documents_content_hash ON documents(content_hash);
+
+CREATE TABLE stored_objects (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    storage_key TEXT NOT NULL UNIQUE,
+    file_size BIGINT NOT NULL,
+    content_type VARCHAR(255),
+    ref_count INTEGER NOT NULL DEFAULT 1 CHECK (ref_count >= 0),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,11 @@
+-- Derived thumbnails and first-page previews, generated asynchronously after upload.
+-- Existing documents start as 'skipped' so deploying this does not queue a render of the
+-- whole table; previews.backfill re-queues them in batches when enabled. New rows default
+-- to 'pending'. Both defaults are constants, so neither statement rewrites the table.
+ALTER TABLE documents ADD COLUMN preview_status VARCHAR(20) NOT NULL DEFAULT 'skipped';
+ALTER TABLE documents ALTER COLUMN preview_status SET DEFAULT 'pending';
+ALTER TABLE documents ADD COLUMN preview_updated_at TIMESTAMP WITH TIME ZONE;
+
+CREATE INDEX idx_documents_preview_pending ON documents(created_at) WHERE preview_status = 'pending';
+CREATE INDEX idx_documents_preview_processing ON documents(preview_updated_at) WHERE preview_status = 'processing';
+CREATE INDEX idx_documents_preview_skipped ON documents(created_at) WHERE preview_status = 'skipped';
@@ -0,0 +1,2 @@
+-- Storage reconciliation anti-joins listed object keys against documents by URL
+CREATE INDEX IF NOT EXISTS idx_documents_file_url ON documents(file_url);
@@ -0,0 +1,29 @@
+-- Full-text search over documents: names and booking fields rank above OCR text.
+-- The column is nullable without a default and maintained by a trigger, so adding it is a
+-- catalog-only change rather than a table rewrite under ACCESS EXCLUSIVE. Existing rows are
+-- filled in batches by V12 and the indexes are built concurrently by V13.
+ALTER TABLE documents ADD COLUMN search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION document_search_vector(booking_reference TEXT, provider_name TEXT, file_name TEXT,
+                                                  document_type TEXT, extracted_data JSONB)
+RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple'::regconfig, coalesce(booking_reference, '')), 'A') ||
+           setweight(to_tsvector('english'::regconfig, coalesce(provider_name, '')), 'A') ||
+           setweight(to_tsvector('english'::regconfig, coalesce(file_name, '')), 'B') ||
+           setweight(to_tsvector('english'::regconfig, coalesce(document_type, '')), 'B') ||
+           setweight(jsonb_to_tsvector('english'::regconfig, coalesce(extracted_data, '{}'::jsonb), '["string"]'), 'C')
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION update_document_search_vector()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.search_vector = document_search_vector(NEW.booking_reference, NEW.provider_name, NEW.file_name,
+                                               NEW.document_type, NEW.extracted_data);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER update_documents_search_vector
+    BEFORE INSERT OR UPDATE OF booking_reference, provider_name, file_name, document_type, extracted_data ON documents
+    FOR EACH ROW
+    EXECUTE FUNCTION update_document_search_vector();
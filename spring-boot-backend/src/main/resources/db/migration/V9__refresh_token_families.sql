@@ -0,0 +1,16 @@
+-- Refresh-token rotation: one row per login session. Each refresh swaps current_jti,
+-- so a replayed (already rotated) token no longer matches and revokes the family.
+CREATE TABLE refresh_token_families (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    current_jti UUID NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    rotated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP WITH TIME ZONE,
+    revoke_reason VARCHAR(30)
+);
+
+CREATE INDEX idx_refresh_token_families_user ON refresh_token_families(user_id) WHERE revoked_at IS NULL;
+CREATE INDEX idx_refresh_token_families_revoked ON refresh_token_families(expires_at) WHERE revoked_at IS NOT NULL;
+CREATE INDEX idx_refresh_token_families_expires ON refresh_token_families(expires_at);